@@ -0,0 +1,55 @@
+package com.chitchatclub.api.benchmark;
+
+import com.chitchatclub.api.entity.User;
+import com.chitchatclub.api.entity.enums.EnglishLevelType;
+import com.chitchatclub.api.entity.enums.LevelBucket;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Deterministic user populations with a realistic mix of test types, malformed
+ * scores and admin overrides.
+ */
+public final class SyntheticUsers {
+
+    private static final String[] CEFR = {"A1", "A2", "B1", "B2", "C1", "C2", "b2", "native"};
+
+    private SyntheticUsers() {}
+
+    public static List<User> generate(int size) {
+        SplittableRandom random = new SplittableRandom(42);
+        LevelBucket[] buckets = LevelBucket.values();
+        List<User> users = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            User user = new User();
+            user.setId(new UUID(random.nextLong(), random.nextLong()));
+            user.setFullName(i % 17 == 0 ? "Last, First " + i : "User " + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(i));
+            user.setNoShowCount(random.nextInt(4));
+
+            EnglishLevelType type = EnglishLevelType.values()[random.nextInt(EnglishLevelType.values().length)];
+            user.setEnglishLevelType(type);
+            user.setEnglishLevelValue(switch (type) {
+                case IELTS -> String.valueOf(random.nextInt(2, 19) / 2.0);
+                case TOEFL_IBT -> String.valueOf(random.nextInt(0, 121));
+                case TOEFL_ITP -> String.valueOf(random.nextInt(310, 678));
+                case DUOLINGO -> String.valueOf(random.nextInt(10, 161));
+                case CEFR -> CEFR[random.nextInt(CEFR.length)];
+                case OTHER -> "conversational";
+            });
+            if (random.nextInt(20) == 0) {
+                user.setEnglishLevelValue("n/a");
+            }
+            if (random.nextInt(10) == 0) {
+                user.setProficiencyLevelOverride(buckets[random.nextInt(buckets.length)]);
+            }
+            users.add(user);
+        }
+        return users;
+    }
+}
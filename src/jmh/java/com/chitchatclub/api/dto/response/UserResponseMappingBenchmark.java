@@ -0,0 +1,39 @@
+package com.chitchatclub.api.dto.response;
+
+import com.chitchatclub.api.benchmark.SyntheticUsers;
+import com.chitchatclub.api.entity.User;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UserResponseMappingBenchmark {
+
+    @Param({"100", "1000", "10000", "50000"})
+    public int population;
+
+    private List<User> users;
+
+    @Setup
+    public void setUp() {
+        users = SyntheticUsers.generate(population);
+    }
+
+    @Benchmark
+    public void publicFields(Blackhole bh) {
+        for (User user : users) {
+            bh.consume(UserResponse.fromEntity(user));
+        }
+    }
+
+    @Benchmark
+    public void adminFields(Blackhole bh) {
+        for (User user : users) {
+            bh.consume(UserResponse.fromEntity(user, true));
+        }
+    }
+}
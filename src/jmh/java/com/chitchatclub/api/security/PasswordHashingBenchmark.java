@@ -0,0 +1,53 @@
+package com.chitchatclub.api.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login throughput (password checks per second) at different bcrypt costs, both
+ * unbounded on every benchmark thread and through the bounded {@link PasswordHasher}
+ * pool that login uses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(Threads.MAX)
+public class PasswordHashingBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"8", "10", "12"})
+    public int strength;
+
+    @Param({"2"})
+    public int hashingThreads;
+
+    private BCryptPasswordEncoder encoder;
+    private PasswordHasher hasher;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(strength);
+        hash = encoder.encode(PASSWORD);
+        hasher = new PasswordHasher(encoder, new SimpleMeterRegistry(), hashingThreads, 10_000);
+    }
+
+    @TearDown
+    public void tearDown() {
+        hasher.destroy();
+    }
+
+    @Benchmark
+    public boolean matchesOnCallerThread() {
+        return encoder.matches(PASSWORD, hash);
+    }
+
+    @Benchmark
+    public boolean matchesOnHashingPool() {
+        return hasher.matches(PASSWORD, hash);
+    }
+}
@@ -0,0 +1,46 @@
+package com.chitchatclub.api.service;
+
+import com.chitchatclub.api.benchmark.SyntheticUsers;
+import com.chitchatclub.api.entity.User;
+import com.chitchatclub.api.repository.projection.RoomExportRow;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RoomCsvExportBenchmark {
+
+    @Param({"100", "1000", "10000", "50000"})
+    public int population;
+
+    private List<RoomExportRow> rows;
+
+    @Setup
+    public void setUp() {
+        List<User> users = SyntheticUsers.generate(population);
+        rows = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            User u = users.get(i);
+            rows.add(new RoomExportRow(i / 5, "B2", i % 5 == 0, u.getFullName(), u.getEmail(),
+                    u.getEnglishLevelType(), u.getEnglishLevelValue(),
+                    u.getEffectiveLevelBucket(), u.getProficiencyLevelOverride()));
+        }
+    }
+
+    /** Formats every row into one reused line buffer, as the streaming export does. */
+    @Benchmark
+    public int formatRows() {
+        StringBuilder line = new StringBuilder(256);
+        int chars = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            line.setLength(0);
+            CsvExportService.appendRoomRow(line, rows.get(i));
+            chars += line.length();
+        }
+        return chars;
+    }
+}
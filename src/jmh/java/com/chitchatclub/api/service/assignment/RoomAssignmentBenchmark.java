@@ -0,0 +1,62 @@
+package com.chitchatclub.api.service.assignment;
+
+import com.chitchatclub.api.benchmark.SyntheticUsers;
+import com.chitchatclub.api.entity.User;
+import com.chitchatclub.api.repository.projection.RoomMembershipRow;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RoomAssignmentBenchmark {
+
+    private static final int ROOM_CAPACITY = 4;
+
+    @Param({"100", "1000", "10000", "50000"})
+    public int population;
+
+    private List<User> users;
+    private List<RoomMembershipRow> previousRound;
+    private PairingHistory history;
+
+    private final BucketChunkingStrategy bucket = new BucketChunkingStrategy();
+    private final BalancedRoomAssignmentStrategy balanced = new BalancedRoomAssignmentStrategy();
+
+    @Setup
+    public void setUp() {
+        users = SyntheticUsers.generate(population);
+        previousRound = new ArrayList<>(population);
+        for (RoomAssignment room : balanced.assign(users, ROOM_CAPACITY, PairingHistory.empty())) {
+            UUID roomId = UUID.randomUUID();
+            for (User member : room.members()) {
+                previousRound.add(new RoomMembershipRow(roomId, member.getId()));
+            }
+        }
+        history = PairingHistory.build(users, previousRound);
+    }
+
+    @Benchmark
+    public List<RoomAssignment> bucketChunking() {
+        return bucket.assign(users, ROOM_CAPACITY, PairingHistory.empty());
+    }
+
+    @Benchmark
+    public List<RoomAssignment> balancedWithoutHistory() {
+        return balanced.assign(users, ROOM_CAPACITY, PairingHistory.empty());
+    }
+
+    @Benchmark
+    public List<RoomAssignment> balancedWithHistory() {
+        return balanced.assign(users, ROOM_CAPACITY, history);
+    }
+
+    @Benchmark
+    public PairingHistory buildPairingHistory() {
+        return PairingHistory.build(users, previousRound);
+    }
+}
@@ -0,0 +1,39 @@
+package com.chitchatclub.api.util;
+
+import com.chitchatclub.api.benchmark.SyntheticUsers;
+import com.chitchatclub.api.entity.User;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EnglishLevelNormalizerBenchmark {
+
+    @Param({"100", "1000", "10000", "50000"})
+    public int population;
+
+    private List<User> users;
+
+    @Setup
+    public void setUp() {
+        users = SyntheticUsers.generate(population);
+    }
+
+    @Benchmark
+    public void normalize(Blackhole bh) {
+        for (User user : users) {
+            bh.consume(EnglishLevelNormalizer.normalize(user.getEnglishLevelType(), user.getEnglishLevelValue()));
+        }
+    }
+
+    @Benchmark
+    public void effectiveLevel(Blackhole bh) {
+        for (User user : users) {
+            bh.consume(EnglishLevelNormalizer.getEffectiveLevel(user));
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.chitchatclub.api.controller;
 
+import com.chitchatclub.api.dto.request.BulkRoomEditRequest;
 import com.chitchatclub.api.dto.request.CreateSessionRequest;
 import com.chitchatclub.api.dto.request.MoveRoomMemberRequest;
 import com.chitchatclub.api.dto.request.RoomMemberRequest;
@@ -7,6 +8,8 @@ import com.chitchatclub.api.dto.request.SendSessionEmailRequest;
 import com.chitchatclub.api.dto.request.UpdateProficiencyOverrideRequest;
 import com.chitchatclub.api.dto.request.UpdateSessionRequest;
 import com.chitchatclub.api.dto.response.BreakoutRoomResponse;
+import com.chitchatclub.api.dto.response.CursorPageResponse;
+import com.chitchatclub.api.dto.response.EmailBlastJobResponse;
 import com.chitchatclub.api.dto.response.EmailPreviewResponse;
 import com.chitchatclub.api.dto.response.FeedbackResponse;
 import com.chitchatclub.api.dto.response.RegistrationResponse;
@@ -15,23 +18,30 @@ import com.chitchatclub.api.dto.response.UserResponse;
 import com.chitchatclub.api.entity.Registration;
 import com.chitchatclub.api.entity.Session;
 import com.chitchatclub.api.entity.User;
-import com.chitchatclub.api.exception.ResourceNotFoundException;
+import com.chitchatclub.api.entity.enums.SessionStatus;
 import com.chitchatclub.api.repository.RegistrationRepository;
 import com.chitchatclub.api.repository.UserRepository;
+import com.chitchatclub.api.security.CurrentUser;
 import com.chitchatclub.api.service.AttendanceService;
 import com.chitchatclub.api.service.BreakoutRoomService;
+import com.chitchatclub.api.service.CsvExportService;
+import com.chitchatclub.api.service.EmailBlastService;
 import com.chitchatclub.api.service.EmailService;
 import com.chitchatclub.api.service.FeedbackService;
 import com.chitchatclub.api.service.SessionService;
 import com.chitchatclub.api.service.UserService;
+import com.chitchatclub.api.service.settings.AppSettingsRegistry;
+import com.chitchatclub.api.util.ETags;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -43,40 +53,53 @@ public class AdminController {
 
     private final SessionService sessionService;
     private final BreakoutRoomService breakoutRoomService;
+    private final CsvExportService csvExportService;
     private final FeedbackService feedbackService;
     private final UserService userService;
     private final AttendanceService attendanceService;
     private final EmailService emailService;
+    private final EmailBlastService emailBlastService;
+    private final AppSettingsRegistry settingsRegistry;
     private final UserRepository userRepository;
     private final RegistrationRepository registrationRepository;
 
     public AdminController(SessionService sessionService,
                            BreakoutRoomService breakoutRoomService,
+                           CsvExportService csvExportService,
                            FeedbackService feedbackService,
                            UserService userService,
                            AttendanceService attendanceService,
                            EmailService emailService,
+                           EmailBlastService emailBlastService,
+                           AppSettingsRegistry settingsRegistry,
                            UserRepository userRepository,
                            RegistrationRepository registrationRepository) {
         this.sessionService = sessionService;
         this.breakoutRoomService = breakoutRoomService;
+        this.csvExportService = csvExportService;
         this.feedbackService = feedbackService;
         this.userService = userService;
         this.attendanceService = attendanceService;
         this.emailService = emailService;
+        this.emailBlastService = emailBlastService;
+        this.settingsRegistry = settingsRegistry;
         this.userRepository = userRepository;
         this.registrationRepository = registrationRepository;
     }
 
     @GetMapping("/sessions")
-    public ResponseEntity<List<SessionResponse>> getAllSessions() {
-        return ResponseEntity.ok(sessionService.getAllSessionsForAdmin());
+    public ResponseEntity<CursorPageResponse<SessionResponse>> getAllSessions(
+            @RequestParam(required = false) SessionStatus status,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(sessionService.getSessionsForAdmin(status, from, to, cursor, limit));
     }
 
     @PostMapping("/sessions")
     public ResponseEntity<SessionResponse> createSession(@Valid @RequestBody CreateSessionRequest request,
-                                                          Authentication authentication) {
-        User creator = resolveUser(authentication);
+                                                          @CurrentUser User creator) {
         SessionResponse response = sessionService.createSession(request, creator);
         return ResponseEntity.ok(SessionResponse.fromEntity(sessionService.getSessionEntity(response.id()), 0, true));
     }
@@ -94,20 +117,29 @@ public class AdminController {
     }
 
     @GetMapping("/sessions/{id}/registrations")
-    public ResponseEntity<List<RegistrationResponse>> getRegistrations(@PathVariable UUID id) {
-        return ResponseEntity.ok(sessionService.getRegistrations(id));
+    public ResponseEntity<CursorPageResponse<RegistrationResponse>> getRegistrations(
+            @PathVariable UUID id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(sessionService.getRegistrations(id, cursor, limit));
     }
 
     @PostMapping("/sessions/{id}/generate-rooms")
     public ResponseEntity<List<BreakoutRoomResponse>> generateRooms(
             @PathVariable UUID id,
-            @RequestParam(defaultValue = "4") int roomSize) {
-        return ResponseEntity.ok(breakoutRoomService.generateRooms(id, roomSize));
+            @RequestParam(defaultValue = "4") int roomSize,
+            @RequestParam(required = false) String strategy) {
+        return ResponseEntity.ok(breakoutRoomService.generateRooms(id, roomSize, strategy));
     }
 
     @GetMapping("/sessions/{id}/rooms")
-    public ResponseEntity<List<BreakoutRoomResponse>> getRooms(@PathVariable UUID id) {
-        return ResponseEntity.ok(breakoutRoomService.getRooms(id));
+    public ResponseEntity<List<BreakoutRoomResponse>> getRooms(@PathVariable UUID id, WebRequest request) {
+        String etag = breakoutRoomService.getRoomsETag(id);
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
+        List<BreakoutRoomResponse> rooms = breakoutRoomService.getRooms(id);
+        return ResponseEntity.ok().eTag(etag).cacheControl(ETags.REVALIDATE).body(rooms);
     }
 
     @PostMapping("/rooms/{roomId}/members")
@@ -129,6 +161,12 @@ public class AdminController {
         return ResponseEntity.ok(breakoutRoomService.moveMemberToRoom(roomId, userId, request.targetRoomId()));
     }
 
+    @PostMapping("/sessions/{id}/rooms/bulk-edit")
+    public ResponseEntity<List<BreakoutRoomResponse>> bulkEditRooms(@PathVariable UUID id,
+                                                                    @Valid @RequestBody BulkRoomEditRequest request) {
+        return ResponseEntity.ok(breakoutRoomService.bulkEditRooms(id, request.operations()));
+    }
+
     @GetMapping("/users/search")
     public ResponseEntity<List<UserResponse>> searchUsers(@RequestParam String email) {
         List<User> users = userRepository.findByEmailContainingIgnoreCase(email);
@@ -142,19 +180,18 @@ public class AdminController {
                                                                     @RequestBody UpdateProficiencyOverrideRequest request) {
         User target = userService.getUserById(id);
         target.setProficiencyLevelOverride(request.proficiencyLevel());
-        target = userRepository.save(target);
+        target = userService.saveRosterProfile(target);
         return ResponseEntity.ok(UserResponse.fromEntity(target, true));
     }
 
     @GetMapping("/sessions/{id}/rooms/export")
-    public ResponseEntity<byte[]> exportRoomsCsv(@PathVariable UUID id) {
-        String csv = breakoutRoomService.exportRoomsCsv(id);
-        byte[] bytes = csv.getBytes(java.nio.charset.StandardCharsets.UTF_8);
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=breakout-rooms.csv")
-                .contentType(MediaType.parseMediaType("text/csv"))
-                .contentLength(bytes.length)
-                .body(bytes);
+    public ResponseEntity<StreamingResponseBody> exportRoomsCsv(@PathVariable UUID id) {
+        return csvAttachment("breakout-rooms.csv", csvExportService.exportRoomsCsv(id));
+    }
+
+    @GetMapping("/sessions/{id}/registrations/export")
+    public ResponseEntity<StreamingResponseBody> exportRegistrationsCsv(@PathVariable UUID id) {
+        return csvAttachment("registrations.csv", csvExportService.exportRegistrationsCsv(id));
     }
 
     @GetMapping("/sessions/{id}/feedback")
@@ -163,23 +200,19 @@ public class AdminController {
     }
 
     @PostMapping("/sessions/{id}/finalize-attendance")
-    public ResponseEntity<Void> finalizeAttendance(@PathVariable UUID id) {
-        attendanceService.finalizeAttendance(id);
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<Map<String, Integer>> finalizeAttendance(@PathVariable UUID id) {
+        int noShows = attendanceService.finalizeAttendance(id);
+        return ResponseEntity.ok(Map.of("noShows", noShows));
     }
 
     @GetMapping("/config")
     public ResponseEntity<Map<String, String>> getConfig() {
-        Map<String, String> config = new java.util.HashMap<>();
-        config.put("max_no_shows", String.valueOf(attendanceService.getConfigInt("max_no_shows", 3)));
-        config.put("blacklist_duration_days", String.valueOf(attendanceService.getConfigInt("blacklist_duration_days", 30)));
-        config.put("unregister_cutoff_hours", String.valueOf(attendanceService.getConfigInt("unregister_cutoff_hours", 24)));
-        return ResponseEntity.ok(config);
+        return ResponseEntity.ok(settingsRegistry.get().adminView());
     }
 
     @PatchMapping("/config")
     public ResponseEntity<Void> updateConfig(@RequestBody Map<String, String> updates) {
-        updates.forEach(attendanceService::setConfig);
+        settingsRegistry.update(updates);
         return ResponseEntity.noContent().build();
     }
 
@@ -220,19 +253,33 @@ public class AdminController {
     }
 
     @PostMapping("/sessions/{id}/send-email")
-    public ResponseEntity<Map<String, Integer>> sendSessionEmail(
+    public ResponseEntity<EmailBlastJobResponse> sendSessionEmail(
             @PathVariable UUID id,
             @Valid @RequestBody SendSessionEmailRequest request) {
         Session session = sessionService.getSessionEntity(id);
-        List<User> recipients = registrationRepository.findBySessionId(id).stream()
+        List<User> recipients = registrationRepository.findWithUserBySessionId(id).stream()
                 .map(Registration::getUser)
                 .toList();
-        int sent = emailService.sendSessionEmail(session, recipients, request.subject(), request.body());
-        return ResponseEntity.ok(Map.of("sent", sent));
+        return ResponseEntity.accepted().body(EmailBlastJobResponse.fromEntity(
+                emailService.sendSessionEmail(session, recipients, request.subject(), request.body())));
     }
 
-    private User resolveUser(Authentication authentication) {
-        return userRepository.findByEmail(authentication.getName())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+    @GetMapping("/sessions/{id}/email-blasts")
+    public ResponseEntity<List<EmailBlastJobResponse>> getSessionEmailBlasts(@PathVariable UUID id) {
+        return ResponseEntity.ok(emailBlastService.getJobsForSession(id).stream()
+                .map(EmailBlastJobResponse::fromEntity)
+                .toList());
+    }
+
+    @GetMapping("/email-blasts/{jobId}")
+    public ResponseEntity<EmailBlastJobResponse> getEmailBlast(@PathVariable UUID jobId) {
+        return ResponseEntity.ok(EmailBlastJobResponse.fromEntity(emailBlastService.getJob(jobId)));
+    }
+
+    private static ResponseEntity<StreamingResponseBody> csvAttachment(String filename, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
+                .contentType(MediaType.parseMediaType("text/csv; charset=UTF-8"))
+                .body(body);
     }
 }
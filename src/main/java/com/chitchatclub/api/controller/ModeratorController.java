@@ -8,15 +8,14 @@ import com.chitchatclub.api.dto.response.UserResponse;
 import com.chitchatclub.api.entity.User;
 import com.chitchatclub.api.entity.enums.Role;
 import com.chitchatclub.api.exception.ForbiddenException;
-import com.chitchatclub.api.exception.ResourceNotFoundException;
 import com.chitchatclub.api.repository.RegistrationRepository;
-import com.chitchatclub.api.repository.UserRepository;
+import com.chitchatclub.api.security.CurrentUser;
 import com.chitchatclub.api.service.BreakoutRoomService;
 import com.chitchatclub.api.service.EnglishLevelService;
+import com.chitchatclub.api.service.SessionService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -29,26 +28,24 @@ public class ModeratorController {
 
     private final EnglishLevelService englishLevelService;
     private final BreakoutRoomService breakoutRoomService;
+    private final SessionService sessionService;
     private final RegistrationRepository registrationRepository;
-    private final UserRepository userRepository;
 
     public ModeratorController(EnglishLevelService englishLevelService,
                                BreakoutRoomService breakoutRoomService,
-                               RegistrationRepository registrationRepository,
-                               UserRepository userRepository) {
+                               SessionService sessionService,
+                               RegistrationRepository registrationRepository) {
         this.englishLevelService = englishLevelService;
         this.breakoutRoomService = breakoutRoomService;
+        this.sessionService = sessionService;
         this.registrationRepository = registrationRepository;
-        this.userRepository = userRepository;
     }
 
     @PatchMapping("/users/{id}/english-level")
     public ResponseEntity<UserResponse> updateEnglishLevel(
             @PathVariable UUID id,
             @Valid @RequestBody UpdateEnglishLevelRequest request,
-            Authentication authentication) {
-
-        User currentUser = resolveUser(authentication);
+            @CurrentUser User currentUser) {
 
         boolean isAdminOrAbove = currentUser.getRole() == Role.ADMIN
                 || currentUser.getRole() == Role.SUPER_ADMIN;
@@ -68,22 +65,13 @@ public class ModeratorController {
     }
 
     @GetMapping("/my-sessions")
-    public ResponseEntity<List<SessionResponse>> getModeratorSessions(Authentication authentication) {
-        User currentUser = resolveUser(authentication);
-        List<SessionResponse> sessions = registrationRepository.findByUserId(currentUser.getId()).stream()
-                .map(reg -> {
-                    var session = reg.getSession();
-                    long count = registrationRepository.countBySessionId(session.getId());
-                    return SessionResponse.fromEntity(session, count);
-                })
-                .toList();
-        return ResponseEntity.ok(sessions);
+    public ResponseEntity<List<SessionResponse>> getModeratorSessions(@CurrentUser User currentUser) {
+        return ResponseEntity.ok(sessionService.getMyRegisteredSessions(currentUser.getId()));
     }
 
     @GetMapping("/sessions/{id}/rooms")
     public ResponseEntity<List<BreakoutRoomResponse>> getRooms(@PathVariable UUID id,
-                                                                Authentication authentication) {
-        User currentUser = resolveUser(authentication);
+                                                                @CurrentUser User currentUser) {
         boolean isRegistered = registrationRepository.existsBySessionIdAndUserId(id, currentUser.getId());
         boolean isAdminOrAbove = currentUser.getRole() == Role.ADMIN
                 || currentUser.getRole() == Role.SUPER_ADMIN;
@@ -92,9 +80,4 @@ public class ModeratorController {
         }
         return ResponseEntity.ok(breakoutRoomService.getRooms(id));
     }
-
-    private User resolveUser(Authentication authentication) {
-        return userRepository.findByEmail(authentication.getName())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-    }
 }
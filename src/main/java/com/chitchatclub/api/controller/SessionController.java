@@ -6,20 +6,26 @@ import com.chitchatclub.api.dto.response.FeedbackResponse;
 import com.chitchatclub.api.dto.response.RegistrationResponse;
 import com.chitchatclub.api.dto.response.SessionResponse;
 import com.chitchatclub.api.dto.response.UserResponse;
-import com.chitchatclub.api.repository.AppConfigRepository;
+import com.chitchatclub.api.dto.response.WaitlistResponse;
 import com.chitchatclub.api.repository.RegistrationRepository;
 import com.chitchatclub.api.entity.User;
-import com.chitchatclub.api.exception.ResourceNotFoundException;
-import com.chitchatclub.api.repository.UserRepository;
+import com.chitchatclub.api.entity.enums.Role;
+import com.chitchatclub.api.exception.ForbiddenException;
+import com.chitchatclub.api.security.CurrentUser;
 import com.chitchatclub.api.service.AttendanceService;
 import com.chitchatclub.api.service.BreakoutRoomService;
 import com.chitchatclub.api.service.FeedbackService;
 import com.chitchatclub.api.service.SessionService;
+import com.chitchatclub.api.service.live.RoomEventBroadcaster;
+import com.chitchatclub.api.service.settings.AppSettingsRegistry;
+import com.chitchatclub.api.util.ETags;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
@@ -35,71 +41,96 @@ public class SessionController {
     private final AttendanceService attendanceService;
     private final BreakoutRoomService breakoutRoomService;
     private final RegistrationRepository registrationRepository;
-    private final UserRepository userRepository;
-    private final AppConfigRepository appConfigRepository;
+    private final AppSettingsRegistry settingsRegistry;
+    private final RoomEventBroadcaster roomEventBroadcaster;
 
     public SessionController(SessionService sessionService,
                              FeedbackService feedbackService,
                              AttendanceService attendanceService,
                              BreakoutRoomService breakoutRoomService,
                              RegistrationRepository registrationRepository,
-                             UserRepository userRepository,
-                             AppConfigRepository appConfigRepository) {
+                             AppSettingsRegistry settingsRegistry,
+                             RoomEventBroadcaster roomEventBroadcaster) {
         this.sessionService = sessionService;
         this.feedbackService = feedbackService;
         this.attendanceService = attendanceService;
         this.breakoutRoomService = breakoutRoomService;
         this.registrationRepository = registrationRepository;
-        this.userRepository = userRepository;
-        this.appConfigRepository = appConfigRepository;
+        this.settingsRegistry = settingsRegistry;
+        this.roomEventBroadcaster = roomEventBroadcaster;
     }
 
     @GetMapping
-    public ResponseEntity<List<SessionResponse>> getOpenSessions() {
-        return ResponseEntity.ok(sessionService.getOpenSessions());
+    public ResponseEntity<List<SessionResponse>> getOpenSessions(WebRequest request) {
+        String etag = sessionService.getOpenSessionsETag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(ETags.REVALIDATE).body(sessionService.getOpenSessions());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<SessionResponse> getSessionById(@PathVariable UUID id) {
-        return ResponseEntity.ok(sessionService.getSessionById(id));
+    public ResponseEntity<SessionResponse> getSessionById(@PathVariable UUID id, WebRequest request) {
+        String etag = sessionService.getSessionETag(id);
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
+        SessionResponse session = sessionService.getSessionById(id);
+        return ResponseEntity.ok().eTag(etag).cacheControl(ETags.REVALIDATE).body(session);
     }
 
     @PostMapping("/{id}/register")
     public ResponseEntity<RegistrationResponse> registerForSession(
             @PathVariable UUID id,
             @RequestParam(defaultValue = "false") boolean asModerator,
-            Authentication authentication) {
-        User user = resolveUser(authentication);
+            @CurrentUser User user) {
         return ResponseEntity.ok(sessionService.registerUser(id, user, asModerator));
     }
 
     @DeleteMapping("/{id}/register")
     public ResponseEntity<Void> unregisterFromSession(@PathVariable UUID id,
-                                                       Authentication authentication) {
-        User user = resolveUser(authentication);
+                                                       @CurrentUser User user) {
         sessionService.unregisterUser(id, user);
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping("/{id}/waitlist")
+    public ResponseEntity<WaitlistResponse> joinWaitlist(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "false") boolean asModerator,
+            @CurrentUser User user) {
+        return ResponseEntity.ok(sessionService.joinWaitlist(id, user, asModerator));
+    }
+
+    @DeleteMapping("/{id}/waitlist")
+    public ResponseEntity<Void> leaveWaitlist(@PathVariable UUID id,
+                                              @CurrentUser User user) {
+        sessionService.leaveWaitlist(id, user);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/{id}/waitlist/me")
+    public ResponseEntity<WaitlistResponse> getMyWaitlistPosition(@PathVariable UUID id,
+                                                                   @CurrentUser User user) {
+        return ResponseEntity.ok(sessionService.getWaitlistPosition(id, user.getId()));
+    }
+
     @PostMapping("/{id}/feedback")
     public ResponseEntity<FeedbackResponse> submitFeedback(@PathVariable UUID id,
                                                             @Valid @RequestBody FeedbackRequest request,
-                                                            Authentication authentication) {
-        User user = resolveUser(authentication);
+                                                            @CurrentUser User user) {
         return ResponseEntity.ok(feedbackService.submitFeedback(id, user, request));
     }
 
     @GetMapping("/{id}/feedback/me")
     public ResponseEntity<List<FeedbackResponse>> getMyFeedback(@PathVariable UUID id,
-                                                                 Authentication authentication) {
-        User user = resolveUser(authentication);
+                                                                 @CurrentUser User user) {
         return ResponseEntity.ok(feedbackService.getMyFeedback(id, user.getId()));
     }
 
     @GetMapping("/{id}/my-registration")
     public ResponseEntity<RegistrationResponse> getMyRegistration(@PathVariable UUID id,
-                                                                    Authentication authentication) {
-        User user = resolveUser(authentication);
+                                                                    @CurrentUser User user) {
         return registrationRepository.findBySessionIdAndUserId(id, user.getId())
                 .map(reg -> ResponseEntity.ok(RegistrationResponse.fromEntity(reg)))
                 .orElse(ResponseEntity.notFound().build());
@@ -107,37 +138,43 @@ public class SessionController {
 
     @GetMapping("/{id}/feedback/received")
     public ResponseEntity<List<FeedbackResponse>> getReceivedFeedback(@PathVariable UUID id,
-                                                                       Authentication authentication) {
-        User user = resolveUser(authentication);
+                                                                       @CurrentUser User user) {
         return ResponseEntity.ok(feedbackService.getReceivedFeedback(id, user.getId()));
     }
 
+    @GetMapping(value = "/{id}/rooms/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamRoomEvents(@PathVariable UUID id,
+                                       @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                       @CurrentUser User user) {
+        // events carry full user details for every room; same audience as GET /api/moderator/sessions/{id}/rooms
+        boolean isAdminOrAbove = user.getRole() == Role.ADMIN || user.getRole() == Role.SUPER_ADMIN;
+        if (!isAdminOrAbove) {
+            if (user.getRole() != Role.MODERATOR) {
+                throw new ForbiddenException("Live room updates are only available to moderators");
+            }
+            if (!registrationRepository.existsBySessionIdAndUserId(id, user.getId())) {
+                throw new ForbiddenException("You are not registered for this session");
+            }
+        }
+        return roomEventBroadcaster.subscribe(id, lastEventId);
+    }
+
     @GetMapping("/{id}/my-room-members")
     public ResponseEntity<List<UserResponse>> getMyRoomMembers(@PathVariable UUID id,
-                                                                Authentication authentication) {
-        User user = resolveUser(authentication);
+                                                                @CurrentUser User user) {
         return ResponseEntity.ok(breakoutRoomService.getRoomMates(id, user.getId()));
     }
 
     @PostMapping("/{id}/verify-attendance")
     public ResponseEntity<Map<String, Object>> verifyAttendance(@PathVariable UUID id,
                                                                   @Valid @RequestBody VerifyAttendanceRequest request,
-                                                                  Authentication authentication) {
-        User user = resolveUser(authentication);
+                                                                  @CurrentUser User user) {
         boolean verified = attendanceService.verifyAttendance(id, user, request.attendanceCode());
         return ResponseEntity.ok(Map.of("verified", verified));
     }
 
     @GetMapping("/config")
     public ResponseEntity<Map<String, Object>> getPublicConfig() {
-        int cutoffHours = appConfigRepository.findById("unregister_cutoff_hours")
-                .map(c -> { try { return Integer.parseInt(c.getConfigValue()); } catch (NumberFormatException e) { return 24; } })
-                .orElse(24);
-        return ResponseEntity.ok(Map.of("unregisterCutoffHours", cutoffHours));
-    }
-
-    private User resolveUser(Authentication authentication) {
-        return userRepository.findByEmail(authentication.getName())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        return ResponseEntity.ok(settingsRegistry.get().publicView());
     }
 }
@@ -7,15 +7,17 @@ import com.chitchatclub.api.dto.response.UserResponse;
 import com.chitchatclub.api.entity.User;
 import com.chitchatclub.api.entity.enums.Role;
 import com.chitchatclub.api.exception.ForbiddenException;
-import com.chitchatclub.api.repository.UserRepository;
+import com.chitchatclub.api.security.CurrentUser;
 import com.chitchatclub.api.service.AuthService;
 import com.chitchatclub.api.service.SessionService;
 import com.chitchatclub.api.service.UserService;
+import com.chitchatclub.api.util.ETags;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
@@ -28,28 +30,31 @@ public class UserController {
 
     private final UserService userService;
     private final SessionService sessionService;
-    private final UserRepository userRepository;
     private final AuthService authService;
 
     public UserController(UserService userService,
                           SessionService sessionService,
-                          UserRepository userRepository,
                           AuthService authService) {
         this.userService = userService;
         this.sessionService = sessionService;
-        this.userRepository = userRepository;
         this.authService = authService;
     }
 
     @GetMapping("/me")
-    public ResponseEntity<UserResponse> getCurrentUser(Authentication authentication) {
-        User user = resolveUser(authentication);
-        return ResponseEntity.ok(UserResponse.fromEntity(user, isAdminOrAbove(user), true));
+    public ResponseEntity<UserResponse> getCurrentUser(@CurrentUser User user, WebRequest request) {
+        // every user shares this URL, so the tag carries the id as well as the version
+        String etag = ETags.of(user.getId(), user.getVersion());
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(ETags.REVALIDATE)
+                .body(UserResponse.fromEntity(user, isAdminOrAbove(user), true));
     }
 
     @GetMapping("/users/{id}")
-    public ResponseEntity<UserResponse> getUserById(@PathVariable UUID id, Authentication authentication) {
-        User requester = resolveUser(authentication);
+    public ResponseEntity<UserResponse> getUserById(@PathVariable UUID id, @CurrentUser User requester) {
         boolean admin = isAdminOrAbove(requester);
 
         if (!admin && !requester.getId().equals(id)) {
@@ -62,12 +67,11 @@ public class UserController {
 
     @PatchMapping("/me/english-level")
     public ResponseEntity<UserResponse> updateMyEnglishLevel(@Valid @RequestBody UpdateMyEnglishLevelRequest request,
-                                                              Authentication authentication) {
-        User user = resolveUser(authentication);
+                                                              @CurrentUser User user) {
         user.setEnglishLevelType(request.englishLevelType());
         user.setEnglishLevelValue(request.englishLevelValue());
         user.setProficiencyLevelOverride(null);
-        user = userRepository.save(user);
+        user = userService.saveRosterProfile(user);
         return ResponseEntity.ok(UserResponse.fromEntity(user, isAdminOrAbove(user)));
     }
 
@@ -82,14 +86,14 @@ public class UserController {
         return ResponseEntity.ok(Map.of("message", "Password changed successfully."));
     }
 
-    @GetMapping("/me/sessions")
-    public ResponseEntity<List<SessionResponse>> getMyRegisteredSessions(Authentication authentication) {
-        User user = resolveUser(authentication);
-        return ResponseEntity.ok(sessionService.getMyRegisteredSessions(user.getId()));
+    @PostMapping("/me/logout-all")
+    public ResponseEntity<Void> logoutAll(@CurrentUser User user) {
+        authService.logoutAll(user);
+        return ResponseEntity.noContent().build();
     }
 
-    private User resolveUser(Authentication authentication) {
-        return userRepository.findByEmail(authentication.getName())
-                .orElseThrow(() -> new com.chitchatclub.api.exception.ResourceNotFoundException("User not found"));
+    @GetMapping("/me/sessions")
+    public ResponseEntity<List<SessionResponse>> getMyRegisteredSessions(@CurrentUser User user) {
+        return ResponseEntity.ok(sessionService.getMyRegisteredSessions(user.getId()));
     }
 }
@@ -0,0 +1,12 @@
+package com.chitchatclub.api.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BulkRoomEditRequest(
+        @NotEmpty @Size(max = 500) List<@Valid @NotNull RoomEditOperation> operations
+) {}
@@ -0,0 +1,22 @@
+package com.chitchatclub.api.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.util.UUID;
+
+/**
+ * One step of a bulk room edit. ADD needs {@code toRoomId}, REMOVE needs
+ * {@code fromRoomId}, MOVE needs both.
+ */
+public record RoomEditOperation(
+        @NotNull Action action,
+        @NotNull UUID userId,
+        UUID fromRoomId,
+        UUID toRoomId
+) {
+    public enum Action {
+        ADD,
+        REMOVE,
+        MOVE
+    }
+}
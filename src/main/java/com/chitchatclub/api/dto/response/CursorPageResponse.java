@@ -0,0 +1,24 @@
+package com.chitchatclub.api.dto.response;
+
+import com.chitchatclub.api.util.KeysetCursor;
+
+import java.util.List;
+import java.util.function.Function;
+
+public record CursorPageResponse<T>(
+        List<T> items,
+        String nextCursor
+) {
+    /**
+     * Builds a page from rows fetched with a limit of {@code pageSize + 1}; the extra row only
+     * signals that another page exists.
+     */
+    public static <E, T> CursorPageResponse<T> of(List<E> rows, int pageSize,
+                                                  Function<E, T> mapper,
+                                                  Function<E, KeysetCursor> cursorOf) {
+        boolean hasMore = rows.size() > pageSize;
+        List<E> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? cursorOf.apply(page.get(page.size() - 1)).encode() : null;
+        return new CursorPageResponse<>(page.stream().map(mapper).toList(), nextCursor);
+    }
+}
@@ -0,0 +1,35 @@
+package com.chitchatclub.api.dto.response;
+
+import com.chitchatclub.api.entity.EmailBlastJob;
+import com.chitchatclub.api.entity.enums.EmailBlastStatus;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record EmailBlastJobResponse(
+        UUID id,
+        UUID sessionId,
+        String subject,
+        EmailBlastStatus status,
+        int total,
+        int sent,
+        int failed,
+        int pending,
+        Instant createdAt,
+        Instant finishedAt
+) {
+    public static EmailBlastJobResponse fromEntity(EmailBlastJob job) {
+        return new EmailBlastJobResponse(
+                job.getId(),
+                job.getSession().getId(),
+                job.getSubject(),
+                job.getStatus(),
+                job.getTotalCount(),
+                job.getSentCount(),
+                job.getFailedCount(),
+                Math.max(0, job.getTotalCount() - job.getSentCount() - job.getFailedCount()),
+                job.getCreatedAt(),
+                job.getFinishedAt()
+        );
+    }
+}
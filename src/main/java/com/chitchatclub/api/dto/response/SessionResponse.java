@@ -1,7 +1,9 @@
 package com.chitchatclub.api.dto.response;
 
 import com.chitchatclub.api.entity.Session;
+import com.chitchatclub.api.entity.User;
 import com.chitchatclub.api.entity.enums.SessionStatus;
+import com.chitchatclub.api.repository.projection.SessionListing;
 
 import java.time.Instant;
 import java.util.UUID;
@@ -27,6 +29,19 @@ public record SessionResponse(
     }
 
     public static SessionResponse fromEntity(Session session, long regCount, boolean includeAttendanceCode) {
+        return fromEntity(session, session.getCreatedBy(), regCount, includeAttendanceCode);
+    }
+
+    public static SessionResponse fromListing(SessionListing listing) {
+        return fromListing(listing, false);
+    }
+
+    public static SessionResponse fromListing(SessionListing listing, boolean includeAttendanceCode) {
+        return fromEntity(listing.session(), listing.creator(), listing.registrationCount(), includeAttendanceCode);
+    }
+
+    private static SessionResponse fromEntity(Session session, User creator, long regCount,
+                                              boolean includeAttendanceCode) {
         return new SessionResponse(
                 session.getId(),
                 session.getTitle(),
@@ -36,7 +51,7 @@ public record SessionResponse(
                 session.getMaxParticipants(),
                 session.getStatus(),
                 regCount,
-                UserResponse.fromEntity(session.getCreatedBy(), true),
+                creator != null ? UserResponse.fromEntity(creator, true) : null,
                 includeAttendanceCode ? session.getAttendanceCode() : null,
                 session.getZoomLink(),
                 session.getZoomMeetingId(),
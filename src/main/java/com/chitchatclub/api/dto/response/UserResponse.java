@@ -4,7 +4,6 @@ import com.chitchatclub.api.entity.User;
 import com.chitchatclub.api.entity.enums.EnglishLevelType;
 import com.chitchatclub.api.entity.enums.LevelBucket;
 import com.chitchatclub.api.entity.enums.Role;
-import com.chitchatclub.api.util.EnglishLevelNormalizer;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -39,10 +38,8 @@ public record UserResponse(
         LocalDateTime blacklistedUntil = null;
 
         if (includeAdminFields) {
-            var calculatedBucket = EnglishLevelNormalizer.normalize(user.getEnglishLevelType(), user.getEnglishLevelValue());
-            var effectiveBucket = EnglishLevelNormalizer.getEffectiveLevel(user);
-            levelBucket = calculatedBucket.name();
-            proficiencyLevel = effectiveBucket.getProficiencyLevel();
+            levelBucket = user.getCalculatedLevelBucket().name();
+            proficiencyLevel = user.getEffectiveLevelBucket().getProficiencyLevel();
             override = user.getProficiencyLevelOverride();
         }
 
@@ -0,0 +1,19 @@
+package com.chitchatclub.api.dto.response;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record WaitlistResponse(
+        UUID sessionId,
+        String status,
+        Long position,
+        LocalDateTime joinedAt
+) {
+    public static WaitlistResponse waiting(UUID sessionId, long position, LocalDateTime joinedAt) {
+        return new WaitlistResponse(sessionId, "WAITLISTED", position, joinedAt);
+    }
+
+    public static WaitlistResponse registered(UUID sessionId) {
+        return new WaitlistResponse(sessionId, "REGISTERED", null, null);
+    }
+}
@@ -24,6 +24,10 @@ public class BreakoutRoom {
     @Column(updatable = false)
     private LocalDateTime createdAt;
 
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
     @PrePersist
     protected void onCreate() {
         this.createdAt = LocalDateTime.now();
@@ -63,6 +67,10 @@ public class BreakoutRoom {
         this.roomIndex = roomIndex;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
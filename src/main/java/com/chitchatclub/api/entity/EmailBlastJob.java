@@ -0,0 +1,88 @@
+package com.chitchatclub.api.entity;
+
+import com.chitchatclub.api.entity.enums.EmailBlastStatus;
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "email_blast_jobs", indexes = {
+        @Index(name = "idx_email_blast_jobs_session", columnList = "session_id")
+})
+public class EmailBlastJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "session_id", nullable = false)
+    private Session session;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EmailBlastStatus status = EmailBlastStatus.RUNNING;
+
+    private int totalCount;
+
+    private int sentCount;
+
+    private int failedCount;
+
+    @Column(updatable = false, columnDefinition = "TIMESTAMP WITH TIME ZONE")
+    private Instant createdAt;
+
+    @Column(columnDefinition = "TIMESTAMP WITH TIME ZONE")
+    private Instant finishedAt;
+
+    /** Instance whose workers are sending this blast. */
+    @Column(length = 100)
+    private String ownerInstance;
+
+    /** Refreshed by the owner while the blast runs; a stale heartbeat means the owner is gone. */
+    @Column(columnDefinition = "TIMESTAMP WITH TIME ZONE")
+    private Instant heartbeatAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = Instant.now();
+    }
+
+    public EmailBlastJob() {}
+
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
+    public Session getSession() { return session; }
+    public void setSession(Session session) { this.session = session; }
+
+    public String getSubject() { return subject; }
+    public void setSubject(String subject) { this.subject = subject; }
+
+    public EmailBlastStatus getStatus() { return status; }
+    public void setStatus(EmailBlastStatus status) { this.status = status; }
+
+    public int getTotalCount() { return totalCount; }
+    public void setTotalCount(int totalCount) { this.totalCount = totalCount; }
+
+    public int getSentCount() { return sentCount; }
+    public void setSentCount(int sentCount) { this.sentCount = sentCount; }
+
+    public int getFailedCount() { return failedCount; }
+    public void setFailedCount(int failedCount) { this.failedCount = failedCount; }
+
+    public Instant getCreatedAt() { return createdAt; }
+
+    public Instant getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(Instant finishedAt) { this.finishedAt = finishedAt; }
+
+    public String getOwnerInstance() { return ownerInstance; }
+    public void setOwnerInstance(String ownerInstance) { this.ownerInstance = ownerInstance; }
+
+    public Instant getHeartbeatAt() { return heartbeatAt; }
+    public void setHeartbeatAt(Instant heartbeatAt) { this.heartbeatAt = heartbeatAt; }
+}
@@ -6,15 +6,21 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "password_reset_tokens")
+@Table(name = "password_reset_tokens", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_password_reset_tokens_token", columnNames = "token")
+}, indexes = {
+        @Index(name = "idx_password_reset_tokens_expires_at", columnList = "expiresAt"),
+        @Index(name = "idx_password_reset_tokens_user", columnList = "user_id")
+})
 public class PasswordResetToken {
 
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @Column(nullable = false, unique = true)
-    private String token;
+    /** SHA-256 (hex) of the token given to the user; kept in the original column. */
+    @Column(name = "token", nullable = false, length = 64)
+    private String tokenHash;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
@@ -34,8 +40,8 @@ public class PasswordResetToken {
     public PasswordResetToken() {}
 
     public UUID getId() { return id; }
-    public String getToken() { return token; }
-    public void setToken(String token) { this.token = token; }
+    public String getTokenHash() { return tokenHash; }
+    public void setTokenHash(String tokenHash) { this.tokenHash = tokenHash; }
     public User getUser() { return user; }
     public void setUser(User user) { this.user = user; }
     public LocalDateTime getExpiresAt() { return expiresAt; }
@@ -8,6 +8,8 @@ import java.util.UUID;
 @Entity
 @Table(name = "registrations", uniqueConstraints = {
         @UniqueConstraint(columnNames = {"session_id", "user_id"})
+}, indexes = {
+        @Index(name = "idx_registrations_session_created_id", columnList = "session_id, createdAt, id")
 })
 public class Registration {
 
@@ -7,7 +7,10 @@ import java.time.Instant;
 import java.util.UUID;
 
 @Entity
-@Table(name = "sessions")
+@Table(name = "sessions", indexes = {
+        @Index(name = "idx_sessions_start_id", columnList = "startDateTime, id"),
+        @Index(name = "idx_sessions_status_start_id", columnList = "status, startDateTime, id")
+})
 public class Session {
 
     @Id
@@ -26,6 +29,9 @@ public class Session {
 
     private Integer maxParticipants;
 
+    @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "integer default 0")
+    private int registeredCount = 0;
+
     @Enumerated(EnumType.STRING)
     private SessionStatus status;
 
@@ -42,6 +48,18 @@ public class Session {
     @Column(updatable = false, columnDefinition = "TIMESTAMP WITH TIME ZONE")
     private Instant createdAt;
 
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
+    /**
+     * Bumped by every change to the session's registrations or breakout rooms, and to
+     * the profile of anyone seated in its rooms. Kept apart from {@link #version} so
+     * registrations never conflict with edits to the session itself.
+     */
+    @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0")
+    private long rosterVersion;
+
     @PrePersist
     protected void onCreate() {
         this.createdAt = Instant.now();
@@ -97,6 +115,14 @@ public class Session {
         this.maxParticipants = maxParticipants;
     }
 
+    public int getRegisteredCount() {
+        return registeredCount;
+    }
+
+    public void setRegisteredCount(int registeredCount) {
+        this.registeredCount = registeredCount;
+    }
+
     public SessionStatus getStatus() {
         return status;
     }
@@ -121,6 +147,14 @@ public class Session {
         this.createdAt = createdAt;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public long getRosterVersion() {
+        return rosterVersion;
+    }
+
     public String getAttendanceCode() {
         return attendanceCode;
     }
@@ -3,6 +3,7 @@ package com.chitchatclub.api.entity;
 import com.chitchatclub.api.entity.enums.EnglishLevelType;
 import com.chitchatclub.api.entity.enums.LevelBucket;
 import com.chitchatclub.api.entity.enums.Role;
+import com.chitchatclub.api.util.EnglishLevelNormalizer;
 import jakarta.persistence.*;
 
 import java.time.LocalDateTime;
@@ -35,15 +36,30 @@ public class User {
     @Column(name = "proficiency_level_override")
     private LevelBucket proficiencyLevelOverride;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "calculated_level_bucket")
+    private LevelBucket calculatedLevelBucket;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "effective_level_bucket")
+    private LevelBucket effectiveLevelBucket;
+
     private boolean emailVerified = false;
 
     private int noShowCount = 0;
 
     private LocalDateTime blacklistedUntil;
 
+    @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "integer default 0")
+    private int tokenVersion = 0;
+
     @Column(updatable = false)
     private LocalDateTime createdAt;
 
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
     @PrePersist
     protected void onCreate() {
         this.createdAt = LocalDateTime.now();
@@ -97,6 +113,7 @@ public class User {
 
     public void setEnglishLevelType(EnglishLevelType englishLevelType) {
         this.englishLevelType = englishLevelType;
+        refreshLevelBuckets();
     }
 
     public String getEnglishLevelValue() {
@@ -105,6 +122,7 @@ public class User {
 
     public void setEnglishLevelValue(String englishLevelValue) {
         this.englishLevelValue = englishLevelValue;
+        refreshLevelBuckets();
     }
 
     public LevelBucket getProficiencyLevelOverride() {
@@ -113,6 +131,31 @@ public class User {
 
     public void setProficiencyLevelOverride(LevelBucket proficiencyLevelOverride) {
         this.proficiencyLevelOverride = proficiencyLevelOverride;
+        refreshLevelBuckets();
+    }
+
+    /** Bucket derived from the self-reported score, ignoring any override. */
+    public LevelBucket getCalculatedLevelBucket() {
+        return calculatedLevelBucket != null
+                ? calculatedLevelBucket
+                : EnglishLevelNormalizer.normalize(englishLevelType, englishLevelValue);
+    }
+
+    /** Override if set, otherwise the calculated bucket. */
+    public LevelBucket getEffectiveLevelBucket() {
+        if (effectiveLevelBucket != null) {
+            return effectiveLevelBucket;
+        }
+        return proficiencyLevelOverride != null ? proficiencyLevelOverride : getCalculatedLevelBucket();
+    }
+
+    /**
+     * Recomputes the stored buckets. Called from the setters of the inputs, so
+     * the score is parsed once per write instead of on every read.
+     */
+    public void refreshLevelBuckets() {
+        this.calculatedLevelBucket = EnglishLevelNormalizer.normalize(englishLevelType, englishLevelValue);
+        this.effectiveLevelBucket = proficiencyLevelOverride != null ? proficiencyLevelOverride : calculatedLevelBucket;
     }
 
     public LocalDateTime getCreatedAt() {
@@ -139,6 +182,14 @@ public class User {
         this.noShowCount = noShowCount;
     }
 
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
     public LocalDateTime getBlacklistedUntil() {
         return blacklistedUntil;
     }
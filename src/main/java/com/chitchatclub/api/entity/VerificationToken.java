@@ -6,15 +6,21 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "verification_tokens")
+@Table(name = "verification_tokens", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_verification_tokens_token", columnNames = "token")
+}, indexes = {
+        @Index(name = "idx_verification_tokens_expires_at", columnList = "expiresAt"),
+        @Index(name = "idx_verification_tokens_user", columnList = "user_id")
+})
 public class VerificationToken {
 
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @Column(nullable = false, unique = true)
-    private String token;
+    /** SHA-256 (hex) of the token given to the user; kept in the original column. */
+    @Column(name = "token", nullable = false, length = 64)
+    private String tokenHash;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
@@ -37,12 +43,12 @@ public class VerificationToken {
         return id;
     }
 
-    public String getToken() {
-        return token;
+    public String getTokenHash() {
+        return tokenHash;
     }
 
-    public void setToken(String token) {
-        this.token = token;
+    public void setTokenHash(String tokenHash) {
+        this.tokenHash = tokenHash;
     }
 
     public User getUser() {
@@ -0,0 +1,7 @@
+package com.chitchatclub.api.entity.enums;
+
+public enum EmailBlastStatus {
+    RUNNING,
+    COMPLETED,
+    INTERRUPTED
+}
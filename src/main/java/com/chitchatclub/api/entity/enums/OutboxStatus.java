@@ -0,0 +1,8 @@
+package com.chitchatclub.api.entity.enums;
+
+public enum OutboxStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    DEAD
+}
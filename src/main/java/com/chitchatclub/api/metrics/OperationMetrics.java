@@ -0,0 +1,73 @@
+package com.chitchatclub.api.metrics;
+
+import com.chitchatclub.api.exception.BadRequestException;
+import com.chitchatclub.api.exception.ConflictException;
+import com.chitchatclub.api.exception.ForbiddenException;
+import com.chitchatclub.api.exception.ResourceNotFoundException;
+import com.chitchatclub.api.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Timers for the operationally important paths. Every timer is tagged with an
+ * {@code outcome} ({@code success}, {@code rejected} for the API's own client
+ * errors, or {@code error}) and the {@code exception} that ended it, if any.
+ */
+@Component
+public class OperationMetrics {
+
+    private final MeterRegistry registry;
+
+    public OperationMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public <T> T record(String name, Supplier<T> operation, String... tags) {
+        Timer.Sample sample = Timer.start(registry);
+        T result;
+        try {
+            result = operation.get();
+        } catch (RuntimeException e) {
+            stop(sample, name, e, tags);
+            throw e;
+        }
+        stop(sample, name, null, tags);
+        return result;
+    }
+
+    public void run(String name, Runnable operation, String... tags) {
+        record(name, () -> {
+            operation.run();
+            return null;
+        }, tags);
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    public void stop(Timer.Sample sample, String name, Throwable failure, String... tags) {
+        sample.stop(Timer.builder(name)
+                .tags(tags)
+                .tag("outcome", outcome(failure))
+                .tag("exception", failure != null ? failure.getClass().getSimpleName() : "none")
+                .register(registry));
+    }
+
+    static String outcome(Throwable failure) {
+        if (failure == null) {
+            return "success";
+        }
+        if (failure instanceof BadRequestException
+                || failure instanceof ConflictException
+                || failure instanceof ForbiddenException
+                || failure instanceof ResourceNotFoundException
+                || failure instanceof TooManyRequestsException) {
+            return "rejected";
+        }
+        return "error";
+    }
+}
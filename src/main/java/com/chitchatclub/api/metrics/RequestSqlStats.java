@@ -0,0 +1,62 @@
+package com.chitchatclub.api.metrics;
+
+/**
+ * SQL statements, rows and JDBC time of the request running on the current thread.
+ * Counting only happens between {@link #begin()} and {@link #end()}, so JDBC work on
+ * other threads (schedulers, the email pools, async exports) is not attributed to a
+ * request.
+ */
+public final class RequestSqlStats {
+
+    private static final ThreadLocal<RequestSqlStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long rows;
+    private long elapsedNanos;
+    private long statementStartedAt;
+
+    private RequestSqlStats() {
+    }
+
+    static RequestSqlStats begin() {
+        RequestSqlStats stats = new RequestSqlStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /** The stats of the current request, or {@code null} outside a request. */
+    static RequestSqlStats current() {
+        return CURRENT.get();
+    }
+
+    void statementStarted() {
+        statementStartedAt = System.nanoTime();
+    }
+
+    void statementFinished(long affectedRows) {
+        statements++;
+        rows += affectedRows;
+        elapsedNanos += System.nanoTime() - statementStartedAt;
+    }
+
+    void rowRead() {
+        rows++;
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    /** Rows read through result sets plus rows reported as updated. */
+    public long rows() {
+        return rows;
+    }
+
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+}
@@ -0,0 +1,165 @@
+package com.chitchatclub.api.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the SQL statements, rows and JDBC time of every request and records them
+ * per route as {@code http.server.requests.sql.*}. With {@code app.sql.report-headers}
+ * the counts are also sent as {@code X-SQL-*} response headers, written just before
+ * the body so they cover the controller's work. A request over its statement budget
+ * is logged, or fails when {@code app.sql.fail-on-exceed} is set (meant for tests).
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlBudgetFilter.class);
+
+    private static final String UNKNOWN_ROUTE = "UNKNOWN";
+
+    private final SqlBudgetProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public SqlBudgetFilter(SqlBudgetProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        RequestSqlStats stats = RequestSqlStats.begin();
+        StatsHeaderResponse reportingResponse = properties.reportHeaders() ? new StatsHeaderResponse(response, stats) : null;
+        try {
+            filterChain.doFilter(request, reportingResponse != null ? reportingResponse : response);
+        } finally {
+            RequestSqlStats.end();
+        }
+        if (reportingResponse != null) {
+            reportingResponse.writeHeaders();
+        }
+        record(request, stats);
+    }
+
+    private void record(HttpServletRequest request, RequestSqlStats stats) {
+        String route = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Tags tags = Tags.of("method", request.getMethod(), "uri", route != null ? route : UNKNOWN_ROUTE);
+
+        DistributionSummary.builder("http.server.requests.sql.statements")
+                .description("SQL statements executed per request")
+                .baseUnit("statements")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(stats.statements());
+        DistributionSummary.builder("http.server.requests.sql.rows")
+                .description("Rows read or updated per request")
+                .baseUnit("rows")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(stats.rows());
+        Timer.builder("http.server.requests.sql.time")
+                .description("Time spent executing SQL per request")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(stats.elapsedNanos(), TimeUnit.NANOSECONDS);
+
+        if (route == null) {
+            return;
+        }
+        String endpoint = request.getMethod() + " " + route;
+        int budget = properties.budgets().getOrDefault(endpoint, properties.defaultBudget());
+        if (budget > 0 && stats.statements() > budget) {
+            Counter.builder("http.server.requests.sql.over.budget")
+                    .description("Requests that ran more SQL statements than their budget")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .increment();
+            String message = endpoint + " ran " + stats.statements() + " SQL statements, over its budget of " + budget;
+            if (properties.failOnExceed()) {
+                throw new IllegalStateException(message);
+            }
+            log.warn(message);
+        }
+    }
+
+    /** Adds the {@code X-SQL-*} headers right before the response starts. */
+    private static final class StatsHeaderResponse extends HttpServletResponseWrapper {
+
+        private final RequestSqlStats stats;
+        private boolean written;
+
+        StatsHeaderResponse(HttpServletResponse response, RequestSqlStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        void writeHeaders() {
+            if (written || isCommitted()) {
+                return;
+            }
+            written = true;
+            setHeader("X-SQL-Statements", String.valueOf(stats.statements()));
+            setHeader("X-SQL-Rows", String.valueOf(stats.rows()));
+            setHeader("X-SQL-Time-Ms", String.valueOf(TimeUnit.NANOSECONDS.toMillis(stats.elapsedNanos())));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.chitchatclub.api.metrics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+
+/**
+ * Per-request SQL reporting and budgets. {@code budgets} is keyed by method and
+ * route pattern, e.g. {@code "GET /api/sessions/{id}"}; other routes get
+ * {@code defaultBudget}. A budget of 0 disables the check.
+ */
+@ConfigurationProperties("app.sql")
+public record SqlBudgetProperties(
+        boolean reportHeaders,
+        boolean failOnExceed,
+        int defaultBudget,
+        @DefaultValue Map<String, Integer> budgets) {
+}
@@ -1,11 +1,16 @@
 package com.chitchatclub.api.repository;
 
 import com.chitchatclub.api.entity.BreakoutRoomMember;
+import com.chitchatclub.api.repository.projection.RoomMembershipRow;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -23,7 +28,17 @@ public interface BreakoutRoomMemberRepository extends JpaRepository<BreakoutRoom
 
     Optional<BreakoutRoomMember> findByBreakoutRoom_SessionIdAndUserId(UUID sessionId, UUID userId);
 
+    @Query("""
+            SELECT new com.chitchatclub.api.repository.projection.RoomMembershipRow(r.id, m.user.id)
+            FROM BreakoutRoomMember m JOIN m.breakoutRoom r JOIN r.session s
+            WHERE s.id <> :sessionId AND s.startDateTime >= :since AND m.user.id IN :userIds
+            """)
+    List<RoomMembershipRow> findPastMemberships(@Param("sessionId") UUID sessionId,
+                                                @Param("since") Instant since,
+                                                @Param("userIds") Collection<UUID> userIds);
+
     @Modifying
     @Transactional
-    void deleteByBreakoutRoom_SessionId(UUID sessionId);
+    @Query("DELETE FROM BreakoutRoomMember m WHERE m.breakoutRoom.id IN (SELECT r.id FROM BreakoutRoom r WHERE r.session.id = :sessionId)")
+    void deleteByBreakoutRoom_SessionId(@Param("sessionId") UUID sessionId);
 }
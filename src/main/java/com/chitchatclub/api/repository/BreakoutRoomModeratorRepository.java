@@ -3,6 +3,8 @@ package com.chitchatclub.api.repository;
 import com.chitchatclub.api.entity.BreakoutRoomModerator;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,5 +20,6 @@ public interface BreakoutRoomModeratorRepository extends JpaRepository<BreakoutR
 
     @Modifying
     @Transactional
-    void deleteByBreakoutRoom_SessionId(UUID sessionId);
+    @Query("DELETE FROM BreakoutRoomModerator m WHERE m.breakoutRoom.id IN (SELECT r.id FROM BreakoutRoom r WHERE r.session.id = :sessionId)")
+    void deleteByBreakoutRoom_SessionId(@Param("sessionId") UUID sessionId);
 }
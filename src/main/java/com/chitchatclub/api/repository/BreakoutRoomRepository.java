@@ -1,20 +1,75 @@
 package com.chitchatclub.api.repository;
 
 import com.chitchatclub.api.entity.BreakoutRoom;
+import com.chitchatclub.api.repository.projection.RoomExportRow;
+import com.chitchatclub.api.repository.projection.RosterRow;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface BreakoutRoomRepository extends JpaRepository<BreakoutRoom, UUID> {
 
     List<BreakoutRoom> findBySessionId(UUID sessionId);
 
+    List<BreakoutRoom> findBySessionIdOrderByRoomIndex(UUID sessionId);
+
+    /** Moderators and members of the given rooms with their users, in one round trip. */
+    @Query("""
+            SELECT new com.chitchatclub.api.repository.projection.RosterRow(x.roomId, x.moderator, u)
+            FROM (
+                SELECT m.breakoutRoom.id AS roomId, true AS moderator, m.user.id AS userId
+                FROM BreakoutRoomModerator m
+                WHERE m.breakoutRoom.id IN :roomIds
+                UNION ALL
+                SELECT m.breakoutRoom.id AS roomId, false AS moderator, m.user.id AS userId
+                FROM BreakoutRoomMember m
+                WHERE m.breakoutRoom.id IN :roomIds
+            ) x
+            JOIN User u ON u.id = x.userId
+            """)
+    List<RosterRow> findRosterRows(@Param("roomIds") Collection<UUID> roomIds);
+
+    /**
+     * Moderators and members of every room in the session as flat rows, room by room with
+     * moderators first. Must be consumed inside a transaction so the cursor stays open.
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query("""
+            SELECT new com.chitchatclub.api.repository.projection.RoomExportRow(
+                x.roomIndex, x.levelBucket, x.moderator, x.fullName, x.email, x.englishLevelType,
+                x.englishLevelValue, x.effectiveLevelBucket, x.proficiencyLevelOverride)
+            FROM (
+                SELECT r.roomIndex AS roomIndex, r.levelBucket AS levelBucket, true AS moderator,
+                       u.fullName AS fullName, u.email AS email, u.englishLevelType AS englishLevelType,
+                       u.englishLevelValue AS englishLevelValue, u.effectiveLevelBucket AS effectiveLevelBucket,
+                       u.proficiencyLevelOverride AS proficiencyLevelOverride
+                FROM BreakoutRoomModerator m JOIN m.breakoutRoom r JOIN m.user u
+                WHERE r.session.id = :sessionId
+                UNION ALL
+                SELECT r.roomIndex AS roomIndex, r.levelBucket AS levelBucket, false AS moderator,
+                       u.fullName AS fullName, u.email AS email, u.englishLevelType AS englishLevelType,
+                       u.englishLevelValue AS englishLevelValue, u.effectiveLevelBucket AS effectiveLevelBucket,
+                       u.proficiencyLevelOverride AS proficiencyLevelOverride
+                FROM BreakoutRoomMember m JOIN m.breakoutRoom r JOIN m.user u
+                WHERE r.session.id = :sessionId
+            ) x
+            ORDER BY x.roomIndex, x.moderator DESC, x.fullName
+            """)
+    Stream<RoomExportRow> streamExportRows(@Param("sessionId") UUID sessionId);
+
     @Modifying
     @Transactional
-    void deleteBySessionId(UUID sessionId);
+    @Query("DELETE FROM BreakoutRoom r WHERE r.session.id = :sessionId")
+    void deleteBySessionId(@Param("sessionId") UUID sessionId);
 }
@@ -0,0 +1,67 @@
+package com.chitchatclub.api.repository;
+
+import com.chitchatclub.api.entity.EmailBlastJob;
+import com.chitchatclub.api.entity.enums.EmailBlastStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface EmailBlastJobRepository extends JpaRepository<EmailBlastJob, UUID> {
+
+    List<EmailBlastJob> findBySessionIdOrderByCreatedAtDesc(UUID sessionId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailBlastJob j SET j.sentCount = :sent, j.failedCount = :failed WHERE j.id = :id")
+    int updateProgress(@Param("id") UUID id, @Param("sent") int sent, @Param("failed") int failed);
+
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE EmailBlastJob j
+            SET j.sentCount = :sent, j.failedCount = :failed, j.status = :status, j.finishedAt = :finishedAt
+            WHERE j.id = :id
+            """)
+    int finish(@Param("id") UUID id,
+               @Param("sent") int sent,
+               @Param("failed") int failed,
+               @Param("status") EmailBlastStatus status,
+               @Param("finishedAt") Instant finishedAt);
+
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE EmailBlastJob j SET j.heartbeatAt = :now
+            WHERE j.ownerInstance = :owner AND j.status = com.chitchatclub.api.entity.enums.EmailBlastStatus.RUNNING
+            """)
+    int touchHeartbeats(@Param("owner") String owner, @Param("now") Instant now);
+
+    /** Interrupts running blasts of {@code owner}; only safe for this instance's own id at startup. */
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE EmailBlastJob j
+            SET j.status = com.chitchatclub.api.entity.enums.EmailBlastStatus.INTERRUPTED, j.finishedAt = :now
+            WHERE j.ownerInstance = :owner AND j.status = com.chitchatclub.api.entity.enums.EmailBlastStatus.RUNNING
+            """)
+    int interruptOwnedBy(@Param("owner") String owner, @Param("now") Instant now);
+
+    /** Interrupts running blasts whose owner stopped sending heartbeats before {@code staleBefore}. */
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE EmailBlastJob j
+            SET j.status = com.chitchatclub.api.entity.enums.EmailBlastStatus.INTERRUPTED, j.finishedAt = :now
+            WHERE j.status = com.chitchatclub.api.entity.enums.EmailBlastStatus.RUNNING
+              AND (j.heartbeatAt IS NULL OR j.heartbeatAt < :staleBefore)
+            """)
+    int interruptStale(@Param("staleBefore") Instant staleBefore, @Param("now") Instant now);
+}
@@ -0,0 +1,67 @@
+package com.chitchatclub.api.repository;
+
+import com.chitchatclub.api.entity.OutboundEmail;
+import com.chitchatclub.api.entity.enums.OutboxStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OutboundEmailRepository extends JpaRepository<OutboundEmail, UUID> {
+
+    /**
+     * Locks due messages with SKIP LOCKED (lock timeout -2) so concurrent
+     * pollers, including other instances, never claim the same row.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboundEmail e WHERE e.status IN :statuses AND e.nextAttemptAt <= :now ORDER BY e.nextAttemptAt")
+    List<OutboundEmail> findDueForUpdate(@Param("statuses") Collection<OutboxStatus> statuses,
+                                         @Param("now") Instant now,
+                                         Pageable pageable);
+
+    /**
+     * Both updates only apply while the row still carries the lease taken by
+     * the claim ({@code leasedUntil}); 0 means the lease expired and another
+     * poller has claimed the message since.
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE OutboundEmail e
+            SET e.status = com.chitchatclub.api.entity.enums.OutboxStatus.SENT, e.sentAt = :sentAt, e.lastError = NULL
+            WHERE e.id = :id AND e.status = com.chitchatclub.api.entity.enums.OutboxStatus.SENDING
+              AND e.nextAttemptAt = :leasedUntil
+            """)
+    int markSent(@Param("id") UUID id, @Param("leasedUntil") Instant leasedUntil, @Param("sentAt") Instant sentAt);
+
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE OutboundEmail e
+            SET e.status = :status, e.attempts = :attempts, e.nextAttemptAt = :nextAttemptAt, e.lastError = :error
+            WHERE e.id = :id AND e.status = com.chitchatclub.api.entity.enums.OutboxStatus.SENDING
+              AND e.nextAttemptAt = :leasedUntil
+            """)
+    int markFailed(@Param("id") UUID id,
+                   @Param("leasedUntil") Instant leasedUntil,
+                   @Param("status") OutboxStatus status,
+                   @Param("attempts") int attempts,
+                   @Param("nextAttemptAt") Instant nextAttemptAt,
+                   @Param("error") String error);
+
+    long countByStatus(OutboxStatus status);
+}
@@ -1,18 +1,29 @@
 package com.chitchatclub.api.repository;
 
 import com.chitchatclub.api.entity.Registration;
+import com.chitchatclub.api.repository.projection.RegistrationExportRow;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface RegistrationRepository extends JpaRepository<Registration, UUID> {
 
     List<Registration> findBySessionId(UUID sessionId);
 
+    @Query("SELECT r FROM Registration r JOIN FETCH r.user WHERE r.session.id = :sessionId ORDER BY r.createdAt, r.id")
+    List<Registration> findWithUserBySessionId(@Param("sessionId") UUID sessionId);
+
     Optional<Registration> findBySessionIdAndUserId(UUID sessionId, UUID userId);
 
     boolean existsBySessionIdAndUserId(UUID sessionId, UUID userId);
@@ -21,7 +32,72 @@ public interface RegistrationRepository extends JpaRepository<Registration, UUID
 
     List<Registration> findByUserId(UUID userId);
 
-    List<Registration> findBySessionIdAndAttendedIsNull(UUID sessionId);
-
     long countByUserIdAndAttendedFalse(UUID userId);
+
+    @Query("SELECT r FROM Registration r JOIN FETCH r.user WHERE r.session.id = :sessionId ORDER BY r.createdAt, r.id")
+    List<Registration> findPageBySessionId(@Param("sessionId") UUID sessionId, Pageable pageable);
+
+    @Query("""
+            SELECT r FROM Registration r JOIN FETCH r.user
+            WHERE r.session.id = :sessionId
+              AND (r.createdAt > :afterCreatedAt OR (r.createdAt = :afterCreatedAt AND r.id > :afterId))
+            ORDER BY r.createdAt, r.id
+            """)
+    List<Registration> findPageBySessionIdAfter(@Param("sessionId") UUID sessionId,
+                                                @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                                @Param("afterId") UUID afterId,
+                                                Pageable pageable);
+
+    /**
+     * Marks every unverified registration of the session as a no-show, increments
+     * those users' no-show counts and blacklists anyone reaching {@code maxNoShows},
+     * all in one statement. Rows already marked by a concurrent call are skipped.
+     * The roster versions of this session, and of any session whose rooms seat an
+     * affected user, are bumped along the way. Returns the emails of the affected users.
+     */
+    @Query(value = """
+            WITH marked AS (
+                UPDATE registrations SET attended = false
+                WHERE session_id = :sessionId AND attended IS NULL
+                RETURNING user_id
+            ),
+            penalized AS (
+                UPDATE users u
+                SET no_show_count = u.no_show_count + 1,
+                    blacklisted_until = CASE WHEN u.no_show_count + 1 >= :maxNoShows
+                                             THEN :blacklistedUntil ELSE u.blacklisted_until END,
+                    version = u.version + 1
+                FROM marked m
+                WHERE u.id = m.user_id
+                RETURNING u.id, u.email
+            ),
+            rosters AS (
+                UPDATE sessions s SET roster_version = s.roster_version + 1
+                WHERE EXISTS (SELECT 1 FROM penalized)
+                  AND (s.id = :sessionId
+                       OR s.id IN (SELECT br.session_id FROM breakout_rooms br
+                                   JOIN breakout_room_members bm ON bm.breakout_room_id = br.id
+                                   WHERE bm.user_id IN (SELECT id FROM penalized)
+                                   UNION
+                                   SELECT br.session_id FROM breakout_rooms br
+                                   JOIN breakout_room_moderators bm ON bm.breakout_room_id = br.id
+                                   WHERE bm.user_id IN (SELECT id FROM penalized)))
+            )
+            SELECT email FROM penalized
+            """, nativeQuery = true)
+    List<String> markNoShows(@Param("sessionId") UUID sessionId,
+                             @Param("maxNoShows") int maxNoShows,
+                             @Param("blacklistedUntil") LocalDateTime blacklistedUntil);
+
+    /** Registrations of a session as flat rows. Must be consumed inside a transaction. */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query("""
+            SELECT new com.chitchatclub.api.repository.projection.RegistrationExportRow(
+                u.fullName, u.email, r.registeredAsModerator, u.englishLevelType, u.englishLevelValue,
+                u.effectiveLevelBucket, u.proficiencyLevelOverride, r.createdAt, r.attended)
+            FROM Registration r JOIN r.user u
+            WHERE r.session.id = :sessionId
+            ORDER BY r.createdAt, r.id
+            """)
+    Stream<RegistrationExportRow> streamExportRows(@Param("sessionId") UUID sessionId);
 }
@@ -2,19 +2,152 @@ package com.chitchatclub.api.repository;
 
 import com.chitchatclub.api.entity.Session;
 import com.chitchatclub.api.entity.enums.SessionStatus;
+import com.chitchatclub.api.repository.projection.SessionListing;
+import com.chitchatclub.api.repository.projection.SessionVersion;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface SessionRepository extends JpaRepository<Session, UUID> {
+public interface SessionRepository extends JpaRepository<Session, UUID>, SessionRepositoryCustom {
 
     List<Session> findByStatus(SessionStatus status);
 
     List<Session> findByStatusAndStartDateTimeAfter(SessionStatus status, Instant after);
 
     List<Session> findByStatusAndStartDateTimeAfterOrderByStartDateTimeAsc(SessionStatus status, Instant after);
+
+    @Query("""
+            SELECT new com.chitchatclub.api.repository.projection.SessionListing(s, c, COUNT(r.id))
+            FROM Session s
+            LEFT JOIN s.createdBy c
+            LEFT JOIN Registration r ON r.session = s
+            WHERE s.status = :status
+            GROUP BY s, c
+            """)
+    List<SessionListing> findListingsByStatus(@Param("status") SessionStatus status);
+
+    @Query("""
+            SELECT new com.chitchatclub.api.repository.projection.SessionListing(s, c, COUNT(r.id))
+            FROM Session s
+            LEFT JOIN s.createdBy c
+            LEFT JOIN Registration r ON r.session = s
+            WHERE s.status = :status AND s.startDateTime > :after
+            GROUP BY s, c
+            ORDER BY s.startDateTime ASC
+            """)
+    List<SessionListing> findUpcomingListings(@Param("status") SessionStatus status,
+                                              @Param("after") Instant after,
+                                              Pageable pageable);
+
+    @Query("""
+            SELECT new com.chitchatclub.api.repository.projection.SessionListing(s, c, COUNT(r.id))
+            FROM Registration mine
+            JOIN mine.session s
+            LEFT JOIN s.createdBy c
+            LEFT JOIN Registration r ON r.session = s
+            WHERE mine.user.id = :userId
+            GROUP BY s, c
+            """)
+    List<SessionListing> findListingsByRegisteredUser(@Param("userId") UUID userId);
+
+    @Query("""
+            SELECT new com.chitchatclub.api.repository.projection.SessionVersion(s.id, s.version, s.rosterVersion, c.version)
+            FROM Session s
+            LEFT JOIN s.createdBy c
+            WHERE s.status = :status
+            ORDER BY s.id
+            """)
+    List<SessionVersion> findVersionsByStatus(@Param("status") SessionStatus status);
+
+    @Query("""
+            SELECT new com.chitchatclub.api.repository.projection.SessionVersion(s.id, s.version, s.rosterVersion, c.version)
+            FROM Session s
+            LEFT JOIN s.createdBy c
+            WHERE s.id = :id
+            """)
+    Optional<SessionVersion> findVersionById(@Param("id") UUID id);
+
+    @Query("SELECT s.rosterVersion FROM Session s WHERE s.id = :id")
+    Optional<Long> findRosterVersionById(@Param("id") UUID id);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Session s SET s.rosterVersion = s.rosterVersion + 1 WHERE s.id = :id")
+    int bumpRosterVersion(@Param("id") UUID id);
+
+    /** Bumps the roster version of every session whose breakout rooms seat the user. */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE sessions SET roster_version = roster_version + 1
+            WHERE id IN (SELECT br.session_id FROM breakout_rooms br
+                         JOIN breakout_room_members m ON m.breakout_room_id = br.id
+                         WHERE m.user_id = :userId
+                         UNION
+                         SELECT br.session_id FROM breakout_rooms br
+                         JOIN breakout_room_moderators m ON m.breakout_room_id = br.id
+                         WHERE m.user_id = :userId)
+            """, nativeQuery = true)
+    int bumpRosterVersionsOfRoomUser(@Param("userId") UUID userId);
+
+    /**
+     * Takes a seat only if the session is open and below capacity. The row lock
+     * taken by the UPDATE serialises concurrent registrations for the same
+     * session, and the condition is re-checked against the committed count.
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE Session s SET s.registeredCount = s.registeredCount + 1, s.rosterVersion = s.rosterVersion + 1
+            WHERE s.id = :id
+              AND s.status = com.chitchatclub.api.entity.enums.SessionStatus.OPEN
+              AND (s.maxParticipants IS NULL OR s.registeredCount < s.maxParticipants)
+            """)
+    int tryReserveSeat(@Param("id") UUID id);
+
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE Session s SET s.registeredCount = s.registeredCount - 1, s.rosterVersion = s.rosterVersion + 1
+            WHERE s.id = :id AND s.registeredCount > 0
+            """)
+    int releaseSeat(@Param("id") UUID id);
+
+    /** Sessions whose counter disagrees with their registrations, as seen by this statement's snapshot. */
+    @Query(value = """
+            SELECT s.id FROM sessions s LEFT JOIN registrations r ON r.session_id = s.id
+            GROUP BY s.id
+            HAVING s.registered_count <> COUNT(r.id)
+            """, nativeQuery = true)
+    List<UUID> findIdsWithDriftedRegisteredCount();
+
+    /** Row-locks the sessions, waiting for registrations in flight on them to commit. */
+    @Query(value = "SELECT id FROM sessions WHERE id IN (:ids) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<UUID> lockByIds(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Recounts the given sessions; call with their rows locked so the count
+     * cannot miss a registration committed while this statement runs.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE sessions s SET registered_count = c.n, roster_version = s.roster_version + 1
+            FROM (SELECT s2.id, COUNT(r.id) AS n
+                  FROM sessions s2 LEFT JOIN registrations r ON r.session_id = s2.id
+                  WHERE s2.id IN (:ids)
+                  GROUP BY s2.id) c
+            WHERE c.id = s.id AND s.registered_count IS DISTINCT FROM c.n
+            """, nativeQuery = true)
+    int reconcileRegisteredCounts(@Param("ids") Collection<UUID> ids);
 }
@@ -0,0 +1,18 @@
+package com.chitchatclub.api.repository;
+
+import com.chitchatclub.api.entity.enums.SessionStatus;
+import com.chitchatclub.api.repository.projection.SessionListing;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public interface SessionRepositoryCustom {
+
+    /**
+     * Keyset page of sessions ordered by start time then id, newest first. Null filters and a
+     * null cursor are left out of the generated query entirely.
+     */
+    List<SessionListing> findListingsPage(SessionStatus status, Instant from, Instant to,
+                                          Instant afterStartDateTime, UUID afterId, int limit);
+}
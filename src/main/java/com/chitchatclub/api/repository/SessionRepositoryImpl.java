@@ -0,0 +1,48 @@
+package com.chitchatclub.api.repository;
+
+import com.chitchatclub.api.entity.enums.SessionStatus;
+import com.chitchatclub.api.repository.projection.SessionListing;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+class SessionRepositoryImpl implements SessionRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<SessionListing> findListingsPage(SessionStatus status, Instant from, Instant to,
+                                                 Instant afterStartDateTime, UUID afterId, int limit) {
+        List<String> predicates = new ArrayList<>();
+        if (status != null) predicates.add("s.status = :status");
+        if (from != null) predicates.add("s.startDateTime >= :from");
+        if (to != null) predicates.add("s.startDateTime < :to");
+        if (afterStartDateTime != null) {
+            predicates.add("(s.startDateTime < :afterStart OR (s.startDateTime = :afterStart AND s.id < :afterId))");
+        }
+
+        String jpql = "SELECT new com.chitchatclub.api.repository.projection.SessionListing(s, c, COUNT(r.id))"
+                + " FROM Session s"
+                + " LEFT JOIN s.createdBy c"
+                + " LEFT JOIN Registration r ON r.session = s"
+                + (predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates))
+                + " GROUP BY s, c"
+                + " ORDER BY s.startDateTime DESC, s.id DESC";
+
+        TypedQuery<SessionListing> query = entityManager.createQuery(jpql, SessionListing.class);
+        if (status != null) query.setParameter("status", status);
+        if (from != null) query.setParameter("from", from);
+        if (to != null) query.setParameter("to", to);
+        if (afterStartDateTime != null) {
+            query.setParameter("afterStart", afterStartDateTime);
+            query.setParameter("afterId", afterId);
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+}
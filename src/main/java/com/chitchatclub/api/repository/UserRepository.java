@@ -1,8 +1,13 @@
 package com.chitchatclub.api.repository;
 
 import com.chitchatclub.api.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -14,6 +19,8 @@ public interface UserRepository extends JpaRepository<User, UUID> {
 
     Optional<User> findByEmail(String email);
 
+    List<User> findByEffectiveLevelBucketIsNull(Pageable pageable);
+
     boolean existsByEmail(String email);
 
     List<User> findByEmailContainingIgnoreCase(String email);
@@ -21,4 +28,12 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     List<User> findByBlacklistedUntilAfter(LocalDateTime now);
 
     List<User> findByNoShowCountGreaterThanOrderByNoShowCountDesc(int count);
+
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") UUID id);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.tokenVersion = u.tokenVersion + 1 WHERE u.id = :id")
+    int incrementTokenVersion(@Param("id") UUID id);
 }
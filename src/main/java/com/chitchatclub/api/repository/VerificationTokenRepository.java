@@ -5,15 +5,25 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface VerificationTokenRepository extends JpaRepository<VerificationToken, UUID> {
 
-    Optional<VerificationToken> findByToken(String token);
+    Optional<VerificationToken> findByTokenHash(String tokenHash);
 
     @Modifying
     @Query("DELETE FROM VerificationToken vt WHERE vt.user.id = :userId")
     void deleteByUserId(@Param("userId") UUID userId);
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+            DELETE FROM verification_tokens WHERE id IN (
+                SELECT id FROM verification_tokens WHERE expires_at < :now LIMIT :limit FOR UPDATE SKIP LOCKED)
+            """, nativeQuery = true)
+    int deleteExpired(@Param("now") LocalDateTime now, @Param("limit") int limit);
 }
@@ -0,0 +1,50 @@
+package com.chitchatclub.api.repository;
+
+import com.chitchatclub.api.entity.WaitlistEntry;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, UUID> {
+
+    Optional<WaitlistEntry> findBySessionIdAndUserId(UUID sessionId, UUID userId);
+
+    long countBySessionId(UUID sessionId);
+
+    /**
+     * Head of the queue, locked with SKIP LOCKED so concurrent promotions on
+     * other instances each take a different entry.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT w FROM WaitlistEntry w WHERE w.session.id = :sessionId ORDER BY w.createdAt, w.id")
+    List<WaitlistEntry> findNextForUpdate(@Param("sessionId") UUID sessionId, Pageable pageable);
+
+    @Query("""
+            SELECT COUNT(w) FROM WaitlistEntry w
+            WHERE w.session.id = :sessionId
+              AND (w.createdAt < :createdAt OR (w.createdAt = :createdAt AND w.id < :id))
+            """)
+    long countAhead(@Param("sessionId") UUID sessionId,
+                    @Param("createdAt") LocalDateTime createdAt,
+                    @Param("id") UUID id);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM WaitlistEntry w WHERE w.session.id = :sessionId AND w.user.id = :userId")
+    int deleteBySessionIdAndUserId(@Param("sessionId") UUID sessionId, @Param("userId") UUID userId);
+}
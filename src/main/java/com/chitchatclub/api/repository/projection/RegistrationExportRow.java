@@ -0,0 +1,18 @@
+package com.chitchatclub.api.repository.projection;
+
+import com.chitchatclub.api.entity.enums.EnglishLevelType;
+import com.chitchatclub.api.entity.enums.LevelBucket;
+
+import java.time.LocalDateTime;
+
+public record RegistrationExportRow(
+        String fullName,
+        String email,
+        boolean registeredAsModerator,
+        EnglishLevelType englishLevelType,
+        String englishLevelValue,
+        LevelBucket effectiveLevelBucket,
+        LevelBucket proficiencyLevelOverride,
+        LocalDateTime registeredAt,
+        Boolean attended
+) {}
@@ -0,0 +1,16 @@
+package com.chitchatclub.api.repository.projection;
+
+import com.chitchatclub.api.entity.enums.EnglishLevelType;
+import com.chitchatclub.api.entity.enums.LevelBucket;
+
+public record RoomExportRow(
+        Integer roomIndex,
+        String levelBucket,
+        boolean moderator,
+        String fullName,
+        String email,
+        EnglishLevelType englishLevelType,
+        String englishLevelValue,
+        LevelBucket effectiveLevelBucket,
+        LevelBucket proficiencyLevelOverride
+) {}
@@ -0,0 +1,8 @@
+package com.chitchatclub.api.repository.projection;
+
+import java.util.UUID;
+
+public record RoomMembershipRow(
+        UUID roomId,
+        UUID userId
+) {}
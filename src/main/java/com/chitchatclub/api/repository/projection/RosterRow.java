@@ -0,0 +1,11 @@
+package com.chitchatclub.api.repository.projection;
+
+import com.chitchatclub.api.entity.User;
+
+import java.util.UUID;
+
+public record RosterRow(
+        UUID roomId,
+        boolean moderator,
+        User user
+) {}
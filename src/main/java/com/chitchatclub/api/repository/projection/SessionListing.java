@@ -0,0 +1,10 @@
+package com.chitchatclub.api.repository.projection;
+
+import com.chitchatclub.api.entity.Session;
+import com.chitchatclub.api.entity.User;
+
+public record SessionListing(
+        Session session,
+        User creator,
+        long registrationCount
+) {}
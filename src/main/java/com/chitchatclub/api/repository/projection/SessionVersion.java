@@ -0,0 +1,10 @@
+package com.chitchatclub.api.repository.projection;
+
+import java.util.UUID;
+
+public record SessionVersion(
+        UUID id,
+        long version,
+        long rosterVersion,
+        Long creatorVersion
+) {}
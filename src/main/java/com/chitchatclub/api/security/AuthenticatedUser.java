@@ -0,0 +1,30 @@
+package com.chitchatclub.api.security;
+
+import com.chitchatclub.api.entity.User;
+import com.chitchatclub.api.entity.enums.Role;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.UUID;
+
+public record AuthenticatedUser(
+        UUID id,
+        String email,
+        Role role
+) implements AuthenticatedPrincipal {
+
+    public static AuthenticatedUser fromEntity(User user) {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getRole());
+    }
+
+    public List<GrantedAuthority> authorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
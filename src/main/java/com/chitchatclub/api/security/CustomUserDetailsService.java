@@ -31,6 +31,10 @@ public class CustomUserDetailsService implements UserDetailsService {
         );
     }
 
+    public AuthenticatedUser loadPrincipal(String email) {
+        return AuthenticatedUser.fromEntity(loadAppUser(email));
+    }
+
     public User loadAppUser(String email) {
         return userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
@@ -1,29 +1,52 @@
 package com.chitchatclub.api.security;
 
+import com.chitchatclub.api.entity.enums.Role;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Authenticates requests carrying a bearer token. Tokens whose version has been bumped
+ * are ignored. With {@code app.security.stateless-auth} enabled the principal is built
+ * from the verified claims alone; otherwise (and for tokens without a user id) it is
+ * loaded through {@link UserPrincipalCache}. Token resolution is timed as
+ * {@code auth.jwt.filter}, tagged with whether the token was accepted.
+ */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
-    private final CustomUserDetailsService userDetailsService;
+    private final UserPrincipalCache principalCache;
+    private final TokenVersionCache tokenVersions;
+    private final boolean statelessAuth;
+    private final Timer authenticatedTimer;
+    private final Timer rejectedTimer;
 
     public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider,
-                                   CustomUserDetailsService userDetailsService) {
+                                   UserPrincipalCache principalCache,
+                                   TokenVersionCache tokenVersions,
+                                   @Value("${app.security.stateless-auth}") boolean statelessAuth,
+                                   MeterRegistry meterRegistry) {
         this.jwtTokenProvider = jwtTokenProvider;
-        this.userDetailsService = userDetailsService;
+        this.principalCache = principalCache;
+        this.tokenVersions = tokenVersions;
+        this.statelessAuth = statelessAuth;
+        this.authenticatedTimer = filterTimer("authenticated", meterRegistry);
+        this.rejectedTimer = filterTimer("rejected", meterRegistry);
     }
 
     @Override
@@ -41,12 +64,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (header != null && header.startsWith("Bearer ")) {
             String token = header.substring(7);
 
-            if (jwtTokenProvider.validateToken(token)) {
-                String email = jwtTokenProvider.getEmailFromToken(token);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-
+            long start = System.nanoTime();
+            Optional<AuthenticatedUser> principal = jwtTokenProvider.parse(token).flatMap(this::resolvePrincipal);
+            (principal.isPresent() ? authenticatedTimer : rejectedTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (principal.isPresent()) {
                 UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                        new UsernamePasswordAuthenticationToken(principal.get(), null, principal.get().authorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -55,4 +78,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private static Timer filterTimer(String outcome, MeterRegistry meterRegistry) {
+        return Timer.builder("auth.jwt.filter")
+                .description("Time spent verifying a bearer token and resolving its principal")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private Optional<AuthenticatedUser> resolvePrincipal(JwtClaims claims) {
+        if (claims.userId() == null || claims.tokenVersion() == null) {
+            return Optional.of(principalCache.get(claims.subject()));
+        }
+        if (!tokenVersions.isCurrent(claims.userId(), claims.tokenVersion())) {
+            return Optional.empty();
+        }
+        if (statelessAuth && claims.role() != null) {
+            return Optional.of(new AuthenticatedUser(claims.userId(), claims.subject(), Role.valueOf(claims.role())));
+        }
+        return Optional.of(principalCache.get(claims.subject()));
+    }
 }
@@ -0,0 +1,16 @@
+package com.chitchatclub.api.security;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Claims of a token whose signature and expiry have been verified. {@code userId} and
+ * {@code tokenVersion} are null for tokens issued before they were added.
+ */
+public record JwtClaims(
+        String subject,
+        String role,
+        UUID userId,
+        Integer tokenVersion,
+        Instant expiresAt
+) {}
@@ -0,0 +1,100 @@
+package com.chitchatclub.api.security;
+
+import com.chitchatclub.api.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Runs password hashing on a small dedicated pool so a burst of logins cannot take
+ * every CPU. When the pool and its queue are full the request fails fast with
+ * {@link TooManyRequestsException} instead of piling up behind the hashes.
+ */
+@Component
+public class PasswordHasher implements DisposableBean {
+
+    private static final String BUSY_MESSAGE = "The server is busy signing people in. Please try again in a moment.";
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolTaskExecutor workers;
+    private final Counter rejected;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.security.password.hashing-threads}") int threads,
+                          @Value("${app.security.password.queue-capacity}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        this.rejected = Counter.builder("auth.password.hashing.rejected")
+                .description("Password hashing requests rejected because the hashing pool was full")
+                .register(meterRegistry);
+        this.encodeTimer = hashingTimer("encode", meterRegistry);
+        this.matchesTimer = hashingTimer("matches", meterRegistry);
+
+        this.workers = new ThreadPoolTaskExecutor();
+        this.workers.setCorePoolSize(threads);
+        this.workers.setMaxPoolSize(threads);
+        this.workers.setQueueCapacity(queueCapacity);
+        this.workers.setThreadNamePrefix("password-hashing-");
+        this.workers.initialize();
+    }
+
+    public String encode(CharSequence rawPassword) {
+        return encodeTimer.record(() -> run(() -> passwordEncoder.encode(rawPassword)));
+    }
+
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return matchesTimer.record(() -> run(() -> passwordEncoder.matches(rawPassword, encodedPassword)));
+    }
+
+    /** Whether the hash was made with another algorithm or weaker settings than the current ones. */
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    /** Time spent hashing, including the wait for a free hashing thread. */
+    private static Timer hashingTimer(String operation, MeterRegistry meterRegistry) {
+        return Timer.builder("auth.password.hashing")
+                .description("Password hashing time, including the wait for a hashing thread")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> result;
+        try {
+            result = workers.submit(task);
+        } catch (TaskRejectedException e) {
+            rejected.increment();
+            throw new TooManyRequestsException(BUSY_MESSAGE);
+        }
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        workers.shutdown();
+    }
+}
@@ -0,0 +1,90 @@
+package com.chitchatclub.api.security;
+
+import com.chitchatclub.api.repository.UserRepository;
+import com.chitchatclub.api.service.bus.ClusterMessageBus;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Current token version per user. Access tokens carry the version they were issued
+ * with and are rejected once it is bumped, which revokes every outstanding token of
+ * that user. Bumps are broadcast on the cluster bus after commit so every node drops
+ * its cached version; the TTL only bounds staleness if a message is lost.
+ */
+@Component
+public class TokenVersionCache {
+
+    static final String CHANNEL = "token_versions";
+
+    private static final Logger log = LoggerFactory.getLogger(TokenVersionCache.class);
+
+    private final UserRepository userRepository;
+    private final ClusterMessageBus bus;
+    private final Cache<UUID, Integer> versions;
+
+    public TokenVersionCache(UserRepository userRepository,
+                             ClusterMessageBus bus,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.security.token-version-cache.max-size}") long maxSize,
+                             @Value("${app.security.token-version-cache.ttl-ms}") long ttlMs) {
+        this.userRepository = userRepository;
+        this.bus = bus;
+        Cache<UUID, Integer> cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+        this.versions = CaffeineCacheMetrics.monitor(meterRegistry, cache, "token-versions");
+        bus.subscribe(CHANNEL, this::onBump);
+    }
+
+    /** Whether a token issued with {@code tokenVersion} is still valid for the user. */
+    public boolean isCurrent(UUID userId, int tokenVersion) {
+        Integer current = versions.get(userId, id -> userRepository.findTokenVersionById(id).orElse(null));
+        return current != null && current == tokenVersion;
+    }
+
+    /** Revokes all access tokens issued to the user so far. */
+    public void bump(UUID userId) {
+        userRepository.incrementTokenVersion(userId);
+        versions.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    broadcast(userId);
+                }
+            });
+        } else {
+            broadcast(userId);
+        }
+    }
+
+    private void broadcast(UUID userId) {
+        versions.invalidate(userId);
+        try {
+            bus.publish(CHANNEL, userId.toString());
+        } catch (RuntimeException e) {
+            log.warn("Failed to broadcast token version bump for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private void onBump(String payload) {
+        try {
+            versions.invalidate(UUID.fromString(payload));
+        } catch (IllegalArgumentException e) {
+            log.warn("Dropping malformed token version payload: {}", payload);
+        }
+    }
+}
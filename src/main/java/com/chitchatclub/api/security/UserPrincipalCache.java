@@ -0,0 +1,60 @@
+package com.chitchatclub.api.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Bounded, TTL-based cache of authenticated principals keyed by email, so the JWT filter
+ * does not hit the users table on every request. Anything that changes a user's role,
+ * credentials or standing must call {@link #evict(String)}.
+ */
+@Component
+public class UserPrincipalCache {
+
+    private final CustomUserDetailsService userDetailsService;
+    private final Cache<String, AuthenticatedUser> cache;
+
+    public UserPrincipalCache(CustomUserDetailsService userDetailsService,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.security.principal-cache.max-size}") long maxSize,
+                              @Value("${app.security.principal-cache.ttl-ms}") long ttlMs) {
+        this.userDetailsService = userDetailsService;
+        Cache<String, AuthenticatedUser> principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+        this.cache = CaffeineCacheMetrics.monitor(meterRegistry, principals, "principals");
+    }
+
+    public AuthenticatedUser get(String email) {
+        return cache.get(email, userDetailsService::loadPrincipal);
+    }
+
+    /**
+     * Evicts now and, inside a transaction, again after commit: a request that reloads the
+     * principal before the change commits would otherwise cache the old row until the TTL.
+     */
+    public void evict(String email) {
+        if (email == null) {
+            return;
+        }
+        cache.invalidate(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(email);
+                }
+            });
+        }
+    }
+}
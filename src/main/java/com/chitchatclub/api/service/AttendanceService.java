@@ -4,6 +4,10 @@ import com.chitchatclub.api.entity.*;
 import com.chitchatclub.api.entity.enums.SessionStatus;
 import com.chitchatclub.api.exception.*;
 import com.chitchatclub.api.repository.*;
+import com.chitchatclub.api.metrics.OperationMetrics;
+import com.chitchatclub.api.security.UserPrincipalCache;
+import com.chitchatclub.api.service.settings.AppSettings;
+import com.chitchatclub.api.service.settings.AppSettingsRegistry;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,16 +22,22 @@ public class AttendanceService {
     private final SessionRepository sessionRepository;
     private final RegistrationRepository registrationRepository;
     private final UserRepository userRepository;
-    private final AppConfigRepository appConfigRepository;
+    private final AppSettingsRegistry settingsRegistry;
+    private final UserPrincipalCache principalCache;
+    private final OperationMetrics metrics;
 
     public AttendanceService(SessionRepository sessionRepository,
                              RegistrationRepository registrationRepository,
                              UserRepository userRepository,
-                             AppConfigRepository appConfigRepository) {
+                             AppSettingsRegistry settingsRegistry,
+                             UserPrincipalCache principalCache,
+                             OperationMetrics metrics) {
         this.sessionRepository = sessionRepository;
         this.registrationRepository = registrationRepository;
         this.userRepository = userRepository;
-        this.appConfigRepository = appConfigRepository;
+        this.settingsRegistry = settingsRegistry;
+        this.principalCache = principalCache;
+        this.metrics = metrics;
     }
 
     public boolean verifyAttendance(UUID sessionId, User user, String code) {
@@ -45,47 +55,27 @@ public class AttendanceService {
         if (matches) {
             reg.setAttended(true);
             registrationRepository.save(reg);
+            sessionRepository.bumpRosterVersion(sessionId);
         }
         return matches;
     }
 
-    public void finalizeAttendance(UUID sessionId) {
+    /** Marks everyone who did not verify attendance as a no-show and returns how many there were. */
+    public int finalizeAttendance(UUID sessionId) {
+        return metrics.record("attendance.finalization", () -> markNoShows(sessionId));
+    }
+
+    private int markNoShows(UUID sessionId) {
         Session session = sessionRepository.findById(sessionId)
                 .orElseThrow(() -> new ResourceNotFoundException("Session not found"));
         if (session.getStatus() != SessionStatus.COMPLETED) {
             throw new BadRequestException("Session must be COMPLETED to finalize attendance");
         }
-        List<Registration> unverified = registrationRepository.findBySessionIdAndAttendedIsNull(sessionId);
-        int maxNoShows = getConfigInt("max_no_shows", 3);
-        int blacklistDays = getConfigInt("blacklist_duration_days", 30);
-
-        for (Registration reg : unverified) {
-            reg.setAttended(false);
-            registrationRepository.save(reg);
-
-            User u = reg.getUser();
-            u.setNoShowCount(u.getNoShowCount() + 1);
-            if (u.getNoShowCount() >= maxNoShows) {
-                u.setBlacklistedUntil(LocalDateTime.now().plusDays(blacklistDays));
-            }
-            userRepository.save(u);
-        }
-    }
-
-    public int getConfigInt(String key, int defaultValue) {
-        return appConfigRepository.findById(key)
-                .map(c -> {
-                    try { return Integer.parseInt(c.getConfigValue()); }
-                    catch (NumberFormatException e) { return defaultValue; }
-                })
-                .orElse(defaultValue);
-    }
-
-    public void setConfig(String key, String value) {
-        AppConfig config = appConfigRepository.findById(key).orElse(new AppConfig());
-        config.setConfigKey(key);
-        config.setConfigValue(value);
-        appConfigRepository.save(config);
+        AppSettings settings = settingsRegistry.get();
+        List<String> noShows = registrationRepository.markNoShows(sessionId, settings.maxNoShows(),
+                LocalDateTime.now().plusDays(settings.blacklistDurationDays()));
+        noShows.forEach(principalCache::evict);
+        return noShows.size();
     }
 
     public void whitelistUser(UUID userId) {
@@ -94,5 +84,7 @@ public class AttendanceService {
         user.setBlacklistedUntil(null);
         user.setNoShowCount(0);
         userRepository.save(user);
+        sessionRepository.bumpRosterVersionsOfRoomUser(userId);
+        principalCache.evict(user.getEmail());
     }
 }
@@ -14,20 +14,24 @@ import com.chitchatclub.api.exception.BadRequestException;
 import com.chitchatclub.api.exception.ConflictException;
 import com.chitchatclub.api.exception.ForbiddenException;
 import com.chitchatclub.api.exception.ResourceNotFoundException;
+import com.chitchatclub.api.exception.TooManyRequestsException;
+import com.chitchatclub.api.metrics.OperationMetrics;
 import com.chitchatclub.api.repository.PasswordResetTokenRepository;
 import com.chitchatclub.api.repository.RefreshTokenRepository;
 import com.chitchatclub.api.repository.UserRepository;
 import com.chitchatclub.api.repository.VerificationTokenRepository;
 import com.chitchatclub.api.security.JwtTokenProvider;
+import com.chitchatclub.api.security.PasswordHasher;
+import com.chitchatclub.api.security.TokenVersionCache;
+import com.chitchatclub.api.security.UserPrincipalCache;
+import com.chitchatclub.api.util.TokenHashes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.UUID;
 
 @Service
 public class AuthService {
@@ -37,29 +41,38 @@ public class AuthService {
     private static final int RESET_TOKEN_EXPIRY_HOURS = 1;
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final JwtTokenProvider jwtTokenProvider;
     private final EmailService emailService;
     private final VerificationTokenRepository verificationTokenRepository;
     private final RefreshTokenRepository refreshTokenRepository;
     private final PasswordResetTokenRepository passwordResetTokenRepository;
+    private final UserPrincipalCache principalCache;
+    private final TokenVersionCache tokenVersions;
+    private final OperationMetrics metrics;
     private final long refreshExpirationMs;
 
     public AuthService(UserRepository userRepository,
-                       PasswordEncoder passwordEncoder,
+                       PasswordHasher passwordHasher,
                        JwtTokenProvider jwtTokenProvider,
                        EmailService emailService,
                        VerificationTokenRepository verificationTokenRepository,
                        RefreshTokenRepository refreshTokenRepository,
                        PasswordResetTokenRepository passwordResetTokenRepository,
+                       UserPrincipalCache principalCache,
+                       TokenVersionCache tokenVersions,
+                       OperationMetrics metrics,
                        @Value("${app.jwt.refresh-expiration-ms}") long refreshExpirationMs) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
         this.jwtTokenProvider = jwtTokenProvider;
         this.emailService = emailService;
         this.verificationTokenRepository = verificationTokenRepository;
         this.refreshTokenRepository = refreshTokenRepository;
         this.passwordResetTokenRepository = passwordResetTokenRepository;
+        this.principalCache = principalCache;
+        this.tokenVersions = tokenVersions;
+        this.metrics = metrics;
         this.refreshExpirationMs = refreshExpirationMs;
     }
 
@@ -71,7 +84,7 @@ public class AuthService {
         User user = new User();
         user.setFullName(request.fullName());
         user.setEmail(request.email());
-        user.setPasswordHash(passwordEncoder.encode(request.password()));
+        user.setPasswordHash(passwordHasher.encode(request.password()));
         user.setEnglishLevelType(request.englishLevelType());
         user.setEnglishLevelValue(request.englishLevelValue());
         user.setEmailVerified(false);
@@ -82,10 +95,14 @@ public class AuthService {
 
     @Transactional
     public AuthResponse login(LoginRequest request) {
+        return metrics.record("auth.login", () -> authenticate(request));
+    }
+
+    private AuthResponse authenticate(LoginRequest request) {
         User user = userRepository.findByEmail(request.email())
                 .orElseThrow(() -> new ResourceNotFoundException("Invalid credentials"));
 
-        if (!passwordEncoder.matches(request.password(), user.getPasswordHash())) {
+        if (!passwordHasher.matches(request.password(), user.getPasswordHash())) {
             throw new BadRequestException("Invalid credentials");
         }
 
@@ -93,14 +110,22 @@ public class AuthService {
             throw new ForbiddenException("Please verify your email before logging in. Check your inbox for the verification link.");
         }
 
-        String accessToken = jwtTokenProvider.generateToken(user.getEmail(), user.getRole().name());
+        if (passwordHasher.needsRehash(user.getPasswordHash())) {
+            try {
+                user.setPasswordHash(passwordHasher.encode(request.password()));
+            } catch (TooManyRequestsException e) {
+                log.debug("Skipping password rehash for {} while the hashing pool is busy", user.getEmail());
+            }
+        }
+
+        String accessToken = jwtTokenProvider.generateToken(user);
         String refreshTokenValue = createRefreshToken(user);
         return new AuthResponse(accessToken, refreshTokenValue, UserResponse.fromEntity(user));
     }
 
     @Transactional
     public AuthResponse refreshAccessToken(String refreshTokenValue) {
-        RefreshToken refreshToken = refreshTokenRepository.findByToken(refreshTokenValue)
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(TokenHashes.sha256Hex(refreshTokenValue))
                 .orElseThrow(() -> new BadRequestException("Invalid refresh token"));
 
         if (refreshToken.getExpiresAt().isBefore(LocalDateTime.now())) {
@@ -114,21 +139,27 @@ public class AuthService {
         refreshTokenRepository.delete(refreshToken);
         String newRefreshToken = createRefreshToken(user);
 
-        String accessToken = jwtTokenProvider.generateToken(user.getEmail(), user.getRole().name());
+        String accessToken = jwtTokenProvider.generateToken(user);
         return new AuthResponse(accessToken, newRefreshToken, UserResponse.fromEntity(user));
     }
 
     @Transactional
     public void logout(String refreshTokenValue) {
-        refreshTokenRepository.deleteByToken(refreshTokenValue);
+        refreshTokenRepository.deleteByTokenHash(TokenHashes.sha256Hex(refreshTokenValue));
+    }
+
+    /** Signs the user out everywhere: revokes all refresh tokens and outstanding access tokens. */
+    @Transactional
+    public void logoutAll(User user) {
+        refreshTokenRepository.deleteByUserId(user.getId());
+        tokenVersions.bump(user.getId());
     }
 
     @Transactional
     public void verifyEmail(String token) {
-        log.info("Verifying email with token: {}", token);
-        VerificationToken vt = verificationTokenRepository.findByToken(token)
+        VerificationToken vt = verificationTokenRepository.findByTokenHash(TokenHashes.sha256Hex(token))
                 .orElseThrow(() -> {
-                    log.warn("Token not found in database: {}", token);
+                    log.warn("Verification token not found");
                     return new BadRequestException("Invalid or expired verification link.");
                 });
 
@@ -160,7 +191,7 @@ public class AuthService {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
-        if (!passwordEncoder.matches(request.currentPassword(), user.getPasswordHash())) {
+        if (!passwordHasher.matches(request.currentPassword(), user.getPasswordHash())) {
             throw new BadRequestException("Current password is incorrect");
         }
 
@@ -168,8 +199,10 @@ public class AuthService {
             throw new BadRequestException("New password must be different from current password");
         }
 
-        user.setPasswordHash(passwordEncoder.encode(request.newPassword()));
+        user.setPasswordHash(passwordHasher.encode(request.newPassword()));
         userRepository.save(user);
+        principalCache.evict(user.getEmail());
+        tokenVersions.bump(user.getId());
     }
 
     @Transactional
@@ -177,20 +210,21 @@ public class AuthService {
         userRepository.findByEmail(email).ifPresent(user -> {
             passwordResetTokenRepository.deleteByUserId(user.getId());
 
+            String token = TokenHashes.newToken();
             PasswordResetToken prt = new PasswordResetToken();
-            prt.setToken(UUID.randomUUID().toString());
+            prt.setTokenHash(TokenHashes.sha256Hex(token));
             prt.setUser(user);
             prt.setExpiresAt(LocalDateTime.now().plusHours(RESET_TOKEN_EXPIRY_HOURS));
             passwordResetTokenRepository.save(prt);
 
-            emailService.sendPasswordResetEmail(user, prt.getToken());
+            emailService.sendPasswordResetEmail(user, token);
         });
         // Silently succeed even if email not found (security best practice)
     }
 
     @Transactional
     public void resetPassword(ResetPasswordRequest request) {
-        PasswordResetToken prt = passwordResetTokenRepository.findByToken(request.token())
+        PasswordResetToken prt = passwordResetTokenRepository.findByTokenHash(TokenHashes.sha256Hex(request.token()))
                 .orElseThrow(() -> new BadRequestException("Invalid or expired reset link."));
 
         if (prt.getExpiresAt().isBefore(LocalDateTime.now())) {
@@ -199,18 +233,21 @@ public class AuthService {
         }
 
         User user = prt.getUser();
-        user.setPasswordHash(passwordEncoder.encode(request.newPassword()));
+        user.setPasswordHash(passwordHasher.encode(request.newPassword()));
         userRepository.save(user);
+        principalCache.evict(user.getEmail());
+        tokenVersions.bump(user.getId());
 
         passwordResetTokenRepository.deleteByUserId(user.getId());
     }
 
     private String createRefreshToken(User user) {
+        String token = TokenHashes.newToken();
         RefreshToken refreshToken = new RefreshToken();
-        refreshToken.setToken(UUID.randomUUID().toString());
+        refreshToken.setTokenHash(TokenHashes.sha256Hex(token));
         refreshToken.setUser(user);
         refreshToken.setExpiresAt(LocalDateTime.now().plusSeconds(refreshExpirationMs / 1000));
         refreshTokenRepository.save(refreshToken);
-        return refreshToken.getToken();
+        return token;
     }
 }
@@ -1,19 +1,30 @@
 package com.chitchatclub.api.service;
 
+import com.chitchatclub.api.dto.request.RoomEditOperation;
 import com.chitchatclub.api.dto.response.BreakoutRoomResponse;
 import com.chitchatclub.api.dto.response.UserResponse;
 import com.chitchatclub.api.entity.*;
-import com.chitchatclub.api.entity.enums.LevelBucket;
 import com.chitchatclub.api.entity.enums.Role;
 import com.chitchatclub.api.exception.BadRequestException;
 import com.chitchatclub.api.exception.ConflictException;
 import com.chitchatclub.api.exception.ResourceNotFoundException;
+import com.chitchatclub.api.metrics.OperationMetrics;
 import com.chitchatclub.api.repository.*;
-import com.chitchatclub.api.util.EnglishLevelNormalizer;
+import com.chitchatclub.api.repository.projection.RosterRow;
+import com.chitchatclub.api.service.assignment.PairingHistory;
+import com.chitchatclub.api.service.assignment.RoomAssignment;
+import com.chitchatclub.api.service.assignment.RoomAssignmentStrategy;
+import com.chitchatclub.api.service.live.RoomChangeEvent;
+import com.chitchatclub.api.util.ETags;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,22 +37,59 @@ public class BreakoutRoomService {
     private final RegistrationRepository registrationRepository;
     private final SessionRepository sessionRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OperationMetrics metrics;
+    private final Map<String, RoomAssignmentStrategy> strategies;
+    private final String defaultStrategy;
+    private final Duration pairingHistoryWindow;
 
     public BreakoutRoomService(BreakoutRoomRepository breakoutRoomRepository,
                                BreakoutRoomMemberRepository breakoutRoomMemberRepository,
                                BreakoutRoomModeratorRepository breakoutRoomModeratorRepository,
                                RegistrationRepository registrationRepository,
                                SessionRepository sessionRepository,
-                               UserRepository userRepository) {
+                               UserRepository userRepository,
+                               ApplicationEventPublisher eventPublisher,
+                               OperationMetrics metrics,
+                               List<RoomAssignmentStrategy> strategies,
+                               @Value("${app.rooms.assignment-strategy}") String defaultStrategy,
+                               @Value("${app.rooms.pairing-history-days}") int pairingHistoryDays) {
         this.breakoutRoomRepository = breakoutRoomRepository;
         this.breakoutRoomMemberRepository = breakoutRoomMemberRepository;
         this.breakoutRoomModeratorRepository = breakoutRoomModeratorRepository;
         this.registrationRepository = registrationRepository;
         this.sessionRepository = sessionRepository;
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.metrics = metrics;
+        this.strategies = strategies.stream()
+                .collect(Collectors.toMap(RoomAssignmentStrategy::name, Function.identity()));
+        if (!this.strategies.containsKey(defaultStrategy)) {
+            throw new IllegalStateException("Unknown room assignment strategy: " + defaultStrategy);
+        }
+        this.defaultStrategy = defaultStrategy;
+        this.pairingHistoryWindow = Duration.ofDays(pairingHistoryDays);
     }
 
     public List<BreakoutRoomResponse> generateRooms(UUID sessionId, int roomSize) {
+        return generateRooms(sessionId, roomSize, null);
+    }
+
+    public List<BreakoutRoomResponse> generateRooms(UUID sessionId, int roomSize, String strategyName) {
+        RoomAssignmentStrategy strategy = strategies.get(strategyName != null ? strategyName : defaultStrategy);
+        return metrics.record("rooms.generation", () -> generate(sessionId, roomSize, strategy, strategyName),
+                "strategy", strategy != null ? strategy.name() : "unknown");
+    }
+
+    private List<BreakoutRoomResponse> generate(UUID sessionId, int roomSize,
+                                                RoomAssignmentStrategy strategy, String strategyName) {
+        if (strategy == null) {
+            throw new BadRequestException("Unknown room assignment strategy: " + strategyName);
+        }
+        if (roomSize < 1) {
+            throw new BadRequestException("Room size must be at least 1");
+        }
+
         Session session = sessionRepository.findById(sessionId)
                 .orElseThrow(() -> new ResourceNotFoundException("Session not found with id: " + sessionId));
 
@@ -49,7 +97,7 @@ public class BreakoutRoomService {
         breakoutRoomMemberRepository.deleteByBreakoutRoom_SessionId(sessionId);
         breakoutRoomRepository.deleteBySessionId(sessionId);
 
-        List<Registration> registrations = registrationRepository.findBySessionId(sessionId);
+        List<Registration> registrations = registrationRepository.findWithUserBySessionId(sessionId);
 
         List<User> moderatorUsers = registrations.stream()
                 .filter(Registration::isRegisteredAsModerator)
@@ -65,53 +113,72 @@ public class BreakoutRoomService {
                 ? Math.max(1, roomSize - 1)
                 : roomSize;
 
-        Map<LevelBucket, List<User>> usersByBucket = participantUsers.stream()
-                .collect(Collectors.groupingBy(EnglishLevelNormalizer::getEffectiveLevel));
+        PairingHistory history = PairingHistory.empty();
+        if (strategy.usesPairingHistory() && !participantUsers.isEmpty()) {
+            List<UUID> participantIds = participantUsers.stream().map(User::getId).toList();
+            history = PairingHistory.build(participantUsers, breakoutRoomMemberRepository.findPastMemberships(
+                    sessionId, Instant.now().minus(pairingHistoryWindow), participantIds));
+        }
 
         int roomIndexCounter = 1;
         List<BreakoutRoom> allRooms = new ArrayList<>();
-
-        for (Map.Entry<LevelBucket, List<User>> entry : new TreeMap<>(usersByBucket).entrySet()) {
-            LevelBucket bucket = entry.getKey();
-            List<User> users = entry.getValue();
-
-            List<List<User>> groups = splitIntoGroups(users, participantCapacity);
-
-            for (List<User> group : groups) {
-                BreakoutRoom room = new BreakoutRoom();
-                room.setSession(session);
-                room.setLevelBucket(bucket.name());
-                room.setRoomIndex(roomIndexCounter++);
-                room = breakoutRoomRepository.save(room);
-
-                for (User user : group) {
-                    BreakoutRoomMember member = new BreakoutRoomMember();
-                    member.setBreakoutRoom(room);
-                    member.setUser(user);
-                    breakoutRoomMemberRepository.save(member);
-                }
-
-                allRooms.add(room);
+        List<BreakoutRoomMember> allMembers = new ArrayList<>();
+        Map<BreakoutRoom, List<User>> membersByRoom = new HashMap<>();
+        Map<BreakoutRoom, List<User>> moderatorsByRoom = new HashMap<>();
+
+        for (RoomAssignment assignment : strategy.assign(participantUsers, participantCapacity, history)) {
+            BreakoutRoom room = new BreakoutRoom();
+            room.setSession(session);
+            room.setLevelBucket(assignment.levelBucket().name());
+            room.setRoomIndex(roomIndexCounter++);
+
+            for (User user : assignment.members()) {
+                BreakoutRoomMember member = new BreakoutRoomMember();
+                member.setBreakoutRoom(room);
+                member.setUser(user);
+                allMembers.add(member);
             }
+
+            allRooms.add(room);
+            membersByRoom.put(room, assignment.members());
         }
 
+        List<BreakoutRoomModerator> allModerators = new ArrayList<>();
         if (!allRooms.isEmpty()) {
             for (int i = 0; i < moderatorUsers.size(); i++) {
                 BreakoutRoom targetRoom = allRooms.get(i % allRooms.size());
                 BreakoutRoomModerator brm = new BreakoutRoomModerator();
                 brm.setBreakoutRoom(targetRoom);
                 brm.setUser(moderatorUsers.get(i));
-                breakoutRoomModeratorRepository.save(brm);
+                allModerators.add(brm);
+                moderatorsByRoom.computeIfAbsent(targetRoom, r -> new ArrayList<>()).add(moderatorUsers.get(i));
             }
         }
 
-        return allRooms.stream().map(this::buildRoomResponse).toList();
+        breakoutRoomRepository.saveAll(allRooms);
+        breakoutRoomMemberRepository.saveAll(allMembers);
+        breakoutRoomModeratorRepository.saveAll(allModerators);
+        sessionRepository.bumpRosterVersion(sessionId);
+        eventPublisher.publishEvent(RoomChangeEvent.roomsRegenerated(sessionId));
+
+        return allRooms.stream()
+                .map(room -> toRoomResponse(room,
+                        moderatorsByRoom.getOrDefault(room, List.of()),
+                        membersByRoom.getOrDefault(room, List.of())))
+                .toList();
+    }
+
+    /** ETag of {@link #getRooms(UUID)}, or {@code null} if there is no such session. */
+    @Transactional(readOnly = true)
+    public String getRoomsETag(UUID sessionId) {
+        return sessionRepository.findRosterVersionById(sessionId)
+                .map(rosterVersion -> ETags.of("rooms", rosterVersion))
+                .orElse(null);
     }
 
     @Transactional(readOnly = true)
     public List<BreakoutRoomResponse> getRooms(UUID sessionId) {
-        List<BreakoutRoom> rooms = breakoutRoomRepository.findBySessionId(sessionId);
-        return rooms.stream().map(this::buildRoomResponse).toList();
+        return buildRoomResponses(breakoutRoomRepository.findBySessionIdOrderByRoomIndex(sessionId));
     }
 
     public BreakoutRoomResponse addMemberToRoom(UUID roomId, UUID userId) {
@@ -131,11 +198,15 @@ public class BreakoutRoomService {
             throw new ConflictException("User is already assigned to another room in this session. Use move instead.");
         }
 
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
         BreakoutRoomMember member = new BreakoutRoomMember();
         member.setBreakoutRoom(room);
-        member.setUser(userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId)));
+        member.setUser(user);
         breakoutRoomMemberRepository.save(member);
+        sessionRepository.bumpRosterVersion(room.getSession().getId());
+        eventPublisher.publishEvent(RoomChangeEvent.memberAdded(
+                room.getSession().getId(), roomId, UserResponse.fromEntity(user)));
 
         return buildRoomResponse(room);
     }
@@ -148,6 +219,9 @@ public class BreakoutRoomService {
                 .orElseThrow(() -> new ResourceNotFoundException("User is not a member of this room"));
 
         breakoutRoomMemberRepository.delete(member);
+        sessionRepository.bumpRosterVersion(room.getSession().getId());
+        eventPublisher.publishEvent(RoomChangeEvent.memberRemoved(
+                room.getSession().getId(), roomId, UserResponse.fromEntity(member.getUser())));
         return buildRoomResponse(room);
     }
 
@@ -178,55 +252,133 @@ public class BreakoutRoomService {
         newMember.setBreakoutRoom(targetRoom);
         newMember.setUser(member.getUser());
         breakoutRoomMemberRepository.save(newMember);
+        sessionRepository.bumpRosterVersion(fromRoom.getSession().getId());
+        eventPublisher.publishEvent(RoomChangeEvent.memberMoved(
+                fromRoom.getSession().getId(), fromRoomId, targetRoomId, UserResponse.fromEntity(member.getUser())));
 
-        return List.of(buildRoomResponse(fromRoom), buildRoomResponse(targetRoom));
+        return buildRoomResponses(List.of(fromRoom, targetRoom));
     }
 
-    @Transactional(readOnly = true)
-    public String exportRoomsCsv(UUID sessionId) {
-        sessionRepository.findById(sessionId)
-                .orElseThrow(() -> new ResourceNotFoundException("Session not found with id: " + sessionId));
+    /**
+     * Applies add/remove/move operations to the member lists of a session's rooms.
+     * Operations are validated in order against an in-memory snapshot, so later steps
+     * see the effect of earlier ones and nothing is written unless all of them are
+     * valid. Only the net change per user is persisted.
+     */
+    public List<BreakoutRoomResponse> bulkEditRooms(UUID sessionId, List<RoomEditOperation> operations) {
+        if (!sessionRepository.existsById(sessionId)) {
+            throw new ResourceNotFoundException("Session not found with id: " + sessionId);
+        }
+        List<BreakoutRoom> rooms = breakoutRoomRepository.findBySessionIdOrderByRoomIndex(sessionId);
+        Map<UUID, BreakoutRoom> roomsById = rooms.stream()
+                .collect(Collectors.toMap(BreakoutRoom::getId, Function.identity()));
+
+        Map<UUID, BreakoutRoomMember> currentMembers = new HashMap<>();
+        Map<UUID, UUID> assignment = new HashMap<>();
+        for (BreakoutRoomMember member : breakoutRoomMemberRepository.findByBreakoutRoom_SessionId(sessionId)) {
+            currentMembers.put(member.getUser().getId(), member);
+            assignment.put(member.getUser().getId(), member.getBreakoutRoom().getId());
+        }
 
-        List<BreakoutRoom> rooms = breakoutRoomRepository.findBySessionId(sessionId);
-        StringBuilder csv = new StringBuilder();
-        csv.append("Room Index,Level Bucket,Role,Name,Email,English Level Type,English Level Value,Proficiency Level,Override\n");
-
-        for (BreakoutRoom room : rooms) {
-            List<BreakoutRoomModerator> roomMods = breakoutRoomModeratorRepository.findByBreakoutRoomId(room.getId());
-            List<BreakoutRoomMember> members = breakoutRoomMemberRepository.findByBreakoutRoomId(room.getId());
-
-            for (BreakoutRoomModerator rm : roomMods) {
-                User u = rm.getUser();
-                LevelBucket effective = EnglishLevelNormalizer.getEffectiveLevel(u);
-                String overrideStr = u.getProficiencyLevelOverride() != null ? u.getProficiencyLevelOverride().name() : "";
-                csv.append(room.getRoomIndex()).append(',')
-                        .append(escapeCsv(room.getLevelBucket())).append(',')
-                        .append("Moderator").append(',')
-                        .append(escapeCsv(u.getFullName())).append(',')
-                        .append(escapeCsv(u.getEmail())).append(',')
-                        .append(u.getEnglishLevelType() != null ? u.getEnglishLevelType().name() : "").append(',')
-                        .append(u.getEnglishLevelValue() != null ? escapeCsv(u.getEnglishLevelValue()) : "").append(',')
-                        .append(effective.getProficiencyLevel()).append(',')
-                        .append(overrideStr).append('\n');
+        Set<UUID> operationUserIds = operations.stream().map(RoomEditOperation::userId).collect(Collectors.toSet());
+        Map<UUID, User> users = userRepository.findAllById(operationUserIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        for (int i = 0; i < operations.size(); i++) {
+            applyOperation(operations.get(i), "Operation " + (i + 1) + ": ", roomsById, users, assignment);
+        }
+
+        Set<UUID> changedUserIds = new HashSet<>();
+        assignment.forEach((userId, roomId) -> {
+            BreakoutRoomMember member = currentMembers.get(userId);
+            if (member == null || !member.getBreakoutRoom().getId().equals(roomId)) {
+                changedUserIds.add(userId);
             }
+        });
+        currentMembers.keySet().stream()
+                .filter(userId -> !assignment.containsKey(userId))
+                .forEach(changedUserIds::add);
+        if (changedUserIds.isEmpty()) {
+            return buildRoomResponses(rooms);
+        }
 
-            for (BreakoutRoomMember m : members) {
-                User u = m.getUser();
-                LevelBucket effective = EnglishLevelNormalizer.getEffectiveLevel(u);
-                String overrideStr = u.getProficiencyLevelOverride() != null ? u.getProficiencyLevelOverride().name() : "";
-                csv.append(room.getRoomIndex()).append(',')
-                        .append(escapeCsv(room.getLevelBucket())).append(',')
-                        .append("Participant").append(',')
-                        .append(escapeCsv(u.getFullName())).append(',')
-                        .append(escapeCsv(u.getEmail())).append(',')
-                        .append(u.getEnglishLevelType() != null ? u.getEnglishLevelType().name() : "").append(',')
-                        .append(u.getEnglishLevelValue() != null ? escapeCsv(u.getEnglishLevelValue()) : "").append(',')
-                        .append(effective.getProficiencyLevel()).append(',')
-                        .append(overrideStr).append('\n');
+        List<BreakoutRoomMember> removed = new ArrayList<>();
+        List<BreakoutRoomMember> added = new ArrayList<>();
+        List<RoomChangeEvent> events = new ArrayList<>();
+        for (UUID userId : changedUserIds) {
+            User user = users.get(userId);
+            BreakoutRoomMember member = currentMembers.get(userId);
+            UUID targetRoomId = assignment.get(userId);
+            if (member == null) {
+                BreakoutRoomMember newMember = new BreakoutRoomMember();
+                newMember.setBreakoutRoom(roomsById.get(targetRoomId));
+                newMember.setUser(user);
+                added.add(newMember);
+                events.add(RoomChangeEvent.memberAdded(sessionId, targetRoomId, UserResponse.fromEntity(user)));
+            } else if (targetRoomId == null) {
+                removed.add(member);
+                events.add(RoomChangeEvent.memberRemoved(
+                        sessionId, member.getBreakoutRoom().getId(), UserResponse.fromEntity(user)));
+            } else {
+                events.add(RoomChangeEvent.memberMoved(
+                        sessionId, member.getBreakoutRoom().getId(), targetRoomId, UserResponse.fromEntity(user)));
+                member.setBreakoutRoom(roomsById.get(targetRoomId));
             }
         }
 
-        return csv.toString();
+        if (!removed.isEmpty()) {
+            breakoutRoomMemberRepository.deleteAllInBatch(removed);
+        }
+        breakoutRoomMemberRepository.saveAll(added);
+        sessionRepository.bumpRosterVersion(sessionId);
+        events.forEach(eventPublisher::publishEvent);
+        return buildRoomResponses(rooms);
+    }
+
+    private static void applyOperation(RoomEditOperation op, String prefix, Map<UUID, BreakoutRoom> roomsById,
+                                       Map<UUID, User> users, Map<UUID, UUID> assignment) {
+        if (!users.containsKey(op.userId())) {
+            throw new ResourceNotFoundException(prefix + "User not found with id: " + op.userId());
+        }
+        UUID currentRoomId = assignment.get(op.userId());
+        switch (op.action()) {
+            case ADD -> {
+                requireSessionRoom(roomsById, op.toRoomId(), prefix + "toRoomId");
+                if (currentRoomId != null) {
+                    throw new ConflictException(prefix + "User " + op.userId()
+                            + " is already assigned to a room in this session. Use move instead.");
+                }
+                assignment.put(op.userId(), op.toRoomId());
+            }
+            case REMOVE -> {
+                requireSessionRoom(roomsById, op.fromRoomId(), prefix + "fromRoomId");
+                if (!op.fromRoomId().equals(currentRoomId)) {
+                    throw new ResourceNotFoundException(prefix + "User " + op.userId() + " is not a member of this room");
+                }
+                assignment.remove(op.userId());
+            }
+            case MOVE -> {
+                requireSessionRoom(roomsById, op.fromRoomId(), prefix + "fromRoomId");
+                requireSessionRoom(roomsById, op.toRoomId(), prefix + "toRoomId");
+                if (op.fromRoomId().equals(op.toRoomId())) {
+                    throw new BadRequestException(prefix + "Source and target rooms are the same");
+                }
+                if (!op.fromRoomId().equals(currentRoomId)) {
+                    throw new ResourceNotFoundException(prefix + "User " + op.userId()
+                            + " is not a member of the source room");
+                }
+                assignment.put(op.userId(), op.toRoomId());
+            }
+        }
+    }
+
+    private static void requireSessionRoom(Map<UUID, BreakoutRoom> roomsById, UUID roomId, String field) {
+        if (roomId == null) {
+            throw new BadRequestException(field + " is required");
+        }
+        if (!roomsById.containsKey(roomId)) {
+            throw new BadRequestException(field + " " + roomId + " is not a room of this session");
+        }
     }
 
     @Transactional(readOnly = true)
@@ -244,39 +396,42 @@ public class BreakoutRoomService {
     }
 
     private BreakoutRoomResponse buildRoomResponse(BreakoutRoom room) {
-        List<BreakoutRoomMember> members = breakoutRoomMemberRepository.findByBreakoutRoomId(room.getId());
-        List<UserResponse> memberResponses = members.stream()
-                .map(m -> UserResponse.fromEntity(m.getUser(), true))
-                .toList();
-        List<BreakoutRoomModerator> roomMods = breakoutRoomModeratorRepository.findByBreakoutRoomId(room.getId());
-        List<UserResponse> moderatorResponses = roomMods.stream()
-                .map(rm -> UserResponse.fromEntity(rm.getUser(), true))
+        return buildRoomResponses(List.of(room)).get(0);
+    }
+
+    /**
+     * Loads moderators, members and their users for all rooms in a single query
+     * and groups them in memory, preserving the order of {@code rooms}.
+     */
+    private List<BreakoutRoomResponse> buildRoomResponses(List<BreakoutRoom> rooms) {
+        if (rooms.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, List<User>> moderatorsByRoom = new HashMap<>();
+        Map<UUID, List<User>> membersByRoom = new HashMap<>();
+        List<UUID> roomIds = rooms.stream().map(BreakoutRoom::getId).toList();
+        for (RosterRow row : breakoutRoomRepository.findRosterRows(roomIds)) {
+            (row.moderator() ? moderatorsByRoom : membersByRoom)
+                    .computeIfAbsent(row.roomId(), id -> new ArrayList<>())
+                    .add(row.user());
+        }
+        return rooms.stream()
+                .map(room -> toRoomResponse(room,
+                        moderatorsByRoom.getOrDefault(room.getId(), List.of()),
+                        membersByRoom.getOrDefault(room.getId(), List.of())))
                 .toList();
+    }
+
+    private static BreakoutRoomResponse toRoomResponse(BreakoutRoom room, List<User> moderators, List<User> members) {
         return new BreakoutRoomResponse(
                 room.getId(),
                 room.getLevelBucket(),
                 room.getRoomIndex(),
-                moderatorResponses,
-                memberResponses
+                moderators.stream().map(u -> UserResponse.fromEntity(u, true)).toList(),
+                members.stream().map(u -> UserResponse.fromEntity(u, true)).toList()
         );
     }
 
-    private static String escapeCsv(String value) {
-        if (value == null) return "";
-        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
-            return "\"" + value.replace("\"", "\"\"") + "\"";
-        }
-        return value;
-    }
-
-    private List<List<User>> splitIntoGroups(List<User> users, int groupSize) {
-        List<List<User>> groups = new ArrayList<>();
-        for (int i = 0; i < users.size(); i += groupSize) {
-            groups.add(new ArrayList<>(users.subList(i, Math.min(i + groupSize, users.size()))));
-        }
-        return groups;
-    }
-
     private static boolean isModeratorRole(Role role) {
         return role == Role.MODERATOR || role == Role.ADMIN || role == Role.SUPER_ADMIN;
     }
@@ -0,0 +1,162 @@
+package com.chitchatclub.api.service;
+
+import com.chitchatclub.api.entity.enums.EnglishLevelType;
+import com.chitchatclub.api.entity.enums.LevelBucket;
+import com.chitchatclub.api.exception.ResourceNotFoundException;
+import com.chitchatclub.api.metrics.OperationMetrics;
+import com.chitchatclub.api.repository.BreakoutRoomRepository;
+import com.chitchatclub.api.repository.RegistrationRepository;
+import com.chitchatclub.api.repository.SessionRepository;
+import com.chitchatclub.api.repository.projection.RegistrationExportRow;
+import com.chitchatclub.api.repository.projection.RoomExportRow;
+import com.chitchatclub.api.util.EnglishLevelNormalizer;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * CSV exports written straight to the response. Rows come from a single
+ * forward-only projection query and are encoded line by line, so memory use
+ * does not grow with the size of the session.
+ */
+@Service
+public class CsvExportService {
+
+    static final String ROOMS_HEADER =
+            "Room Index,Level Bucket,Role,Name,Email,English Level Type,English Level Value,Proficiency Level,Override\n";
+    static final String REGISTRATIONS_HEADER =
+            "Name,Email,Role,English Level Type,English Level Value,Proficiency Level,Registered At,Attended\n";
+
+    private final SessionRepository sessionRepository;
+    private final BreakoutRoomRepository breakoutRoomRepository;
+    private final RegistrationRepository registrationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final OperationMetrics metrics;
+
+    public CsvExportService(SessionRepository sessionRepository,
+                            BreakoutRoomRepository breakoutRoomRepository,
+                            RegistrationRepository registrationRepository,
+                            PlatformTransactionManager transactionManager,
+                            OperationMetrics metrics) {
+        this.sessionRepository = sessionRepository;
+        this.breakoutRoomRepository = breakoutRoomRepository;
+        this.registrationRepository = registrationRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.metrics = metrics;
+    }
+
+    public StreamingResponseBody exportRoomsCsv(UUID sessionId) {
+        requireSession(sessionId);
+        return out -> write(out, "rooms", ROOMS_HEADER,
+                () -> breakoutRoomRepository.streamExportRows(sessionId), CsvExportService::appendRoomRow);
+    }
+
+    public StreamingResponseBody exportRegistrationsCsv(UUID sessionId) {
+        requireSession(sessionId);
+        return out -> write(out, "registrations", REGISTRATIONS_HEADER,
+                () -> registrationRepository.streamExportRows(sessionId), CsvExportService::appendRegistrationRow);
+    }
+
+    static void appendRoomRow(StringBuilder csv, RoomExportRow row) {
+        LevelBucket effective = effectiveLevel(row.effectiveLevelBucket(), row.proficiencyLevelOverride(),
+                row.englishLevelType(), row.englishLevelValue());
+        csv.append(row.roomIndex()).append(',')
+                .append(escapeCsv(row.levelBucket())).append(',')
+                .append(row.moderator() ? "Moderator" : "Participant").append(',')
+                .append(escapeCsv(row.fullName())).append(',')
+                .append(escapeCsv(row.email())).append(',')
+                .append(row.englishLevelType() != null ? row.englishLevelType().name() : "").append(',')
+                .append(escapeCsv(row.englishLevelValue())).append(',')
+                .append(effective.getProficiencyLevel()).append(',')
+                .append(row.proficiencyLevelOverride() != null ? row.proficiencyLevelOverride().name() : "")
+                .append('\n');
+    }
+
+    static void appendRegistrationRow(StringBuilder csv, RegistrationExportRow row) {
+        LevelBucket effective = effectiveLevel(row.effectiveLevelBucket(), row.proficiencyLevelOverride(),
+                row.englishLevelType(), row.englishLevelValue());
+        csv.append(escapeCsv(row.fullName())).append(',')
+                .append(escapeCsv(row.email())).append(',')
+                .append(row.registeredAsModerator() ? "Moderator" : "Participant").append(',')
+                .append(row.englishLevelType() != null ? row.englishLevelType().name() : "").append(',')
+                .append(escapeCsv(row.englishLevelValue())).append(',')
+                .append(effective.getProficiencyLevel()).append(',')
+                .append(row.registeredAt() != null ? row.registeredAt().toString() : "").append(',')
+                .append(row.attended() == null ? "" : row.attended() ? "Yes" : "No")
+                .append('\n');
+    }
+
+    private <T> void write(OutputStream out, String export, String header, Supplier<Stream<T>> rows,
+                           BiConsumer<StringBuilder, T> formatter) throws IOException {
+        Timer.Sample sample = metrics.start();
+        try {
+            writeRows(out, header, rows, formatter);
+        } catch (IOException | RuntimeException e) {
+            metrics.stop(sample, "exports.csv", e, "export", export);
+            throw e;
+        }
+        metrics.stop(sample, "exports.csv", null, "export", export);
+    }
+
+    private <T> void writeRows(OutputStream out, String header, Supplier<Stream<T>> rows,
+                               BiConsumer<StringBuilder, T> formatter) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(header);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                StringBuilder line = new StringBuilder(256);
+                try (Stream<T> stream = rows.get()) {
+                    Iterator<T> it = stream.iterator();
+                    while (it.hasNext()) {
+                        line.setLength(0);
+                        formatter.accept(line, it.next());
+                        writer.append(line);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private void requireSession(UUID sessionId) {
+        if (!sessionRepository.existsById(sessionId)) {
+            throw new ResourceNotFoundException("Session not found with id: " + sessionId);
+        }
+    }
+
+    /** Stored bucket, falling back to computing it for rows not yet backfilled. */
+    private static LevelBucket effectiveLevel(LevelBucket stored, LevelBucket override,
+                                              EnglishLevelType type, String value) {
+        if (stored != null) return stored;
+        if (override != null) return override;
+        return EnglishLevelNormalizer.normalize(type, value);
+    }
+
+    private static String escapeCsv(String value) {
+        if (value == null) return "";
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
@@ -0,0 +1,248 @@
+package com.chitchatclub.api.service;
+
+import com.chitchatclub.api.entity.EmailBlastJob;
+import com.chitchatclub.api.entity.Session;
+import com.chitchatclub.api.entity.enums.EmailBlastStatus;
+import com.chitchatclub.api.exception.ResourceNotFoundException;
+import com.chitchatclub.api.metrics.OperationMetrics;
+import com.chitchatclub.api.repository.EmailBlastJobRepository;
+import com.chitchatclub.api.util.TokenBucket;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs session email blasts in the background. Each blast is drained by up to
+ * {@code connections} workers. Every worker keeps one SMTP transport open and
+ * reuses a single prepared message, changing only the recipient. All workers
+ * share one token bucket, so the overall send rate stays under the relay's
+ * limit. A recipient whose send fails is handed to the outbox for retries.
+ * <p>
+ * Jobs record the instance running them and a heartbeat that instance keeps
+ * fresh. A running job is only marked interrupted when its owner restarts or
+ * its heartbeat goes stale, so blasts of other live instances are left alone.
+ */
+@Service
+public class EmailBlastService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailBlastService.class);
+
+    private final EmailBlastJobRepository jobRepository;
+    private final EmailOutboxService outbox;
+    private final JavaMailSender mailSender;
+    private final OperationMetrics metrics;
+    private final ThreadPoolTaskExecutor workers;
+    private final TokenBucket sendRate;
+    private final String fromAddress;
+    private final int connections;
+    private final int progressFlushEvery;
+    private final String instanceId;
+    private final Duration staleAfter;
+
+    public EmailBlastService(EmailBlastJobRepository jobRepository,
+                             EmailOutboxService outbox,
+                             JavaMailSender mailSender,
+                             OperationMetrics metrics,
+                             @Value("${app.mail.from}") String fromAddress,
+                             @Value("${app.mail.blast.connections}") int connections,
+                             @Value("${app.mail.blast.rate-per-second}") double ratePerSecond,
+                             @Value("${app.mail.blast.burst}") int burst,
+                             @Value("${app.mail.blast.progress-flush-every}") int progressFlushEvery,
+                             @Value("${app.mail.blast.instance-id}") String instanceId,
+                             @Value("${app.mail.blast.stale-after-ms}") long staleAfterMs) {
+        this.jobRepository = jobRepository;
+        this.outbox = outbox;
+        this.mailSender = mailSender;
+        this.metrics = metrics;
+        this.fromAddress = fromAddress;
+        this.connections = connections;
+        this.progressFlushEvery = progressFlushEvery;
+        this.sendRate = new TokenBucket(ratePerSecond, burst);
+        this.instanceId = instanceId.isBlank() ? UUID.randomUUID().toString() : instanceId;
+        this.staleAfter = Duration.ofMillis(staleAfterMs);
+
+        this.workers = new ThreadPoolTaskExecutor();
+        this.workers.setCorePoolSize(connections);
+        this.workers.setMaxPoolSize(connections);
+        this.workers.setThreadNamePrefix("email-blast-");
+        this.workers.setWaitForTasksToCompleteOnShutdown(true);
+        this.workers.setAwaitTerminationSeconds(30);
+        this.workers.initialize();
+    }
+
+    public EmailBlastJob start(Session session, List<String> recipients, String subject, String html) {
+        EmailBlastJob job = new EmailBlastJob();
+        job.setSession(session);
+        job.setSubject(subject);
+        job.setTotalCount(recipients.size());
+        job.setOwnerInstance(instanceId);
+        job.setHeartbeatAt(Instant.now());
+        if (recipients.isEmpty()) {
+            job.setStatus(EmailBlastStatus.COMPLETED);
+            job.setFinishedAt(Instant.now());
+            return jobRepository.save(job);
+        }
+        job = jobRepository.save(job);
+
+        BlastRun run = new BlastRun(job.getId(), new ConcurrentLinkedQueue<>(recipients), subject, html,
+                Math.min(connections, recipients.size()));
+        for (int i = 0; i < run.workerCount; i++) {
+            workers.execute(run::drain);
+        }
+        log.info("Email blast {} for '{}' started: {} recipients", job.getId(), session.getTitle(), recipients.size());
+        return job;
+    }
+
+    public EmailBlastJob getJob(UUID jobId) {
+        return jobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Email blast not found with id: " + jobId));
+    }
+
+    public List<EmailBlastJob> getJobsForSession(UUID sessionId) {
+        return jobRepository.findBySessionIdOrderByCreatedAtDesc(sessionId);
+    }
+
+    /** Blasts this instance still owns from before a restart have lost their workers. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void markInterruptedJobs() {
+        Instant now = Instant.now();
+        int interrupted = jobRepository.interruptOwnedBy(instanceId, now)
+                + jobRepository.interruptStale(now.minus(staleAfter), now);
+        if (interrupted > 0) {
+            log.warn("Marked {} email blast(s) left running by a previous or stopped instance as interrupted", interrupted);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.blast.heartbeat-ms}")
+    public void heartbeat() {
+        Instant now = Instant.now();
+        jobRepository.touchHeartbeats(instanceId, now);
+        int interrupted = jobRepository.interruptStale(now.minus(staleAfter), now);
+        if (interrupted > 0) {
+            log.warn("Marked {} email blast(s) with a stale heartbeat as interrupted", interrupted);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        workers.shutdown();
+    }
+
+    private final class BlastRun {
+
+        private final UUID jobId;
+        private final Queue<String> recipients;
+        private final String subject;
+        private final String html;
+        private final int workerCount;
+        private final AtomicInteger activeWorkers;
+        private final AtomicInteger sent = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+
+        private BlastRun(UUID jobId, Queue<String> recipients, String subject, String html, int workerCount) {
+            this.jobId = jobId;
+            this.recipients = recipients;
+            this.subject = subject;
+            this.html = html;
+            this.workerCount = workerCount;
+            this.activeWorkers = new AtomicInteger(workerCount);
+        }
+
+        private void drain() {
+            Transport transport = null;
+            try {
+                MimeMessage message = mailSender.createMimeMessage();
+                MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+                helper.setFrom(fromAddress);
+                helper.setSubject(subject);
+                helper.setText(html, true);
+
+                String to;
+                while ((to = recipients.poll()) != null) {
+                    sendRate.acquire();
+                    Timer.Sample sample = metrics.start();
+                    try {
+                        helper.setTo(to);
+                        if (mailSender instanceof JavaMailSenderImpl impl) {
+                            if (transport == null || !transport.isConnected()) {
+                                closeQuietly(transport);
+                                transport = connect(impl);
+                            }
+                            message.saveChanges();
+                            transport.sendMessage(message, message.getAllRecipients());
+                        } else {
+                            mailSender.send(message);
+                        }
+                        metrics.stop(sample, "email.delivery", null, "channel", "blast");
+                        recordProgress(sent.incrementAndGet() + failed.get());
+                    } catch (Exception e) {
+                        metrics.stop(sample, "email.delivery", e, "channel", "blast");
+                        log.warn("Email blast {}: sending to {} failed, handing it to the outbox: {}",
+                                jobId, to, e.getMessage());
+                        outbox.enqueue(to, subject, html);
+                        recordProgress(sent.get() + failed.incrementAndGet());
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("Email blast {}: worker stopped: {}", jobId, e.getMessage());
+            } finally {
+                closeQuietly(transport);
+                if (activeWorkers.decrementAndGet() == 0) {
+                    complete();
+                }
+            }
+        }
+
+        private void recordProgress(int processed) {
+            if (processed % progressFlushEvery == 0) {
+                jobRepository.updateProgress(jobId, sent.get(), failed.get());
+            }
+        }
+
+        private void complete() {
+            int remaining = recipients.size();
+            EmailBlastStatus status = remaining == 0 ? EmailBlastStatus.COMPLETED : EmailBlastStatus.INTERRUPTED;
+            jobRepository.finish(jobId, sent.get(), failed.get(), status, Instant.now());
+            log.info("Email blast {} finished: {} sent, {} failed, {} not attempted",
+                    jobId, sent.get(), failed.get(), remaining);
+        }
+    }
+
+    private static Transport connect(JavaMailSenderImpl impl) throws MessagingException {
+        Transport transport = impl.getSession().getTransport(impl.getProtocol());
+        transport.connect(impl.getHost(), impl.getPort(), impl.getUsername(), impl.getPassword());
+        return transport;
+    }
+
+    private static void closeQuietly(Transport transport) {
+        if (transport != null && transport.isConnected()) {
+            try {
+                transport.close();
+            } catch (MessagingException ignored) {
+            }
+        }
+    }
+}
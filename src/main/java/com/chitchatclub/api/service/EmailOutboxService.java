@@ -0,0 +1,185 @@
+package com.chitchatclub.api.service;
+
+import com.chitchatclub.api.entity.OutboundEmail;
+import com.chitchatclub.api.entity.enums.OutboxStatus;
+import com.chitchatclub.api.metrics.OperationMetrics;
+import com.chitchatclub.api.repository.OutboundEmailRepository;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Persistent outbox for outgoing mail. Callers enqueue inside their own
+ * transaction; a poller claims due rows and hands them to a bounded worker
+ * pool. A claimed row is leased by pushing {@code nextAttemptAt} forward, so
+ * rows left in SENDING by a crashed instance are picked up again once the
+ * lease expires. Results are only recorded while the lease is still held, so
+ * a slow send cannot overwrite the outcome of the poller that took over.
+ */
+@Service
+public class EmailOutboxService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxService.class);
+    private static final Set<OutboxStatus> CLAIMABLE = EnumSet.of(OutboxStatus.PENDING, OutboxStatus.SENDING);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboundEmailRepository outboxRepository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final OperationMetrics metrics;
+    private final ThreadPoolTaskExecutor workers;
+    private final String fromAddress;
+    private final int batchSize;
+    private final int queueCapacity;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    public EmailOutboxService(OutboundEmailRepository outboxRepository,
+                              JavaMailSender mailSender,
+                              PlatformTransactionManager transactionManager,
+                              OperationMetrics metrics,
+                              @Value("${app.mail.from}") String fromAddress,
+                              @Value("${app.mail.outbox.workers}") int workers,
+                              @Value("${app.mail.outbox.queue-capacity}") int queueCapacity,
+                              @Value("${app.mail.outbox.batch-size}") int batchSize,
+                              @Value("${app.mail.outbox.max-attempts}") int maxAttempts,
+                              @Value("${app.mail.outbox.lease-ms}") long leaseMs,
+                              @Value("${app.mail.outbox.initial-backoff-ms}") long initialBackoffMs,
+                              @Value("${app.mail.outbox.max-backoff-ms}") long maxBackoffMs) {
+        this.outboxRepository = outboxRepository;
+        this.mailSender = mailSender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.metrics = metrics;
+        this.fromAddress = fromAddress;
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+        this.maxAttempts = maxAttempts;
+        this.lease = Duration.ofMillis(leaseMs);
+        this.initialBackoff = Duration.ofMillis(initialBackoffMs);
+        this.maxBackoff = Duration.ofMillis(maxBackoffMs);
+
+        this.workers = new ThreadPoolTaskExecutor();
+        this.workers.setCorePoolSize(workers);
+        this.workers.setMaxPoolSize(workers);
+        this.workers.setQueueCapacity(queueCapacity);
+        this.workers.setThreadNamePrefix("email-outbox-");
+        this.workers.setWaitForTasksToCompleteOnShutdown(true);
+        this.workers.setAwaitTerminationSeconds(30);
+        this.workers.initialize();
+    }
+
+    @Transactional
+    public void enqueue(String to, String subject, String html) {
+        outboxRepository.save(new OutboundEmail(to, subject, html));
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval-ms}")
+    public void dispatchDue() {
+        int capacity = Math.min(batchSize, queueCapacity - workers.getThreadPoolExecutor().getQueue().size());
+        if (capacity <= 0) {
+            return;
+        }
+        List<OutboundEmail> claimed = claim(capacity);
+        for (OutboundEmail email : claimed) {
+            workers.execute(() -> deliver(email));
+        }
+    }
+
+    private List<OutboundEmail> claim(int limit) {
+        return transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            // the column keeps microseconds; the lease is compared for equality when recording the result
+            Instant leasedUntil = now.plus(lease).truncatedTo(ChronoUnit.MICROS);
+            List<OutboundEmail> due = outboxRepository.findDueForUpdate(CLAIMABLE, now, PageRequest.of(0, limit));
+            for (OutboundEmail email : due) {
+                email.setStatus(OutboxStatus.SENDING);
+                email.setNextAttemptAt(leasedUntil);
+            }
+            return due;
+        });
+    }
+
+    private void deliver(OutboundEmail email) {
+        Timer.Sample sample = metrics.start();
+        try {
+            MimeMessage message = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+            helper.setFrom(fromAddress);
+            helper.setTo(email.getRecipient());
+            helper.setSubject(email.getSubject());
+            helper.setText(email.getBody(), true);
+            mailSender.send(message);
+            metrics.stop(sample, "email.delivery", null, "channel", "outbox");
+            if (outboxRepository.markSent(email.getId(), email.getNextAttemptAt(), Instant.now()) == 0) {
+                logLostLease(email, "sent");
+                return;
+            }
+            log.info("Email '{}' sent to {}", email.getSubject(), email.getRecipient());
+        } catch (Exception e) {
+            metrics.stop(sample, "email.delivery", e, "channel", "outbox");
+            recordFailure(email, e);
+        }
+    }
+
+    private void recordFailure(OutboundEmail email, Exception e) {
+        int attempts = email.getAttempts() + 1;
+        String error = e.getMessage() != null ? e.getMessage() : e.getClass().getName();
+        if (error.length() > MAX_ERROR_LENGTH) {
+            error = error.substring(0, MAX_ERROR_LENGTH);
+        }
+        if (attempts >= maxAttempts) {
+            if (outboxRepository.markFailed(email.getId(), email.getNextAttemptAt(),
+                    OutboxStatus.DEAD, attempts, Instant.now(), error) == 0) {
+                logLostLease(email, "failed");
+                return;
+            }
+            log.error("Giving up on email '{}' to {} after {} attempts: {}",
+                    email.getSubject(), email.getRecipient(), attempts, error);
+            return;
+        }
+        Instant retryAt = Instant.now().plus(backoff(attempts));
+        if (outboxRepository.markFailed(email.getId(), email.getNextAttemptAt(),
+                OutboxStatus.PENDING, attempts, retryAt, error) == 0) {
+            logLostLease(email, "failed");
+            return;
+        }
+        log.warn("Failed to send email '{}' to {} (attempt {}), retrying at {}: {}",
+                email.getSubject(), email.getRecipient(), attempts, retryAt, error);
+    }
+
+    private void logLostLease(OutboundEmail email, String outcome) {
+        log.warn("Lease on email '{}' to {} expired before it was marked {}; leaving it to the poller that reclaimed it",
+                email.getSubject(), email.getRecipient(), outcome);
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    @Override
+    public void destroy() {
+        workers.shutdown();
+    }
+}
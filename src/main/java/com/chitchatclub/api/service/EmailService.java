@@ -1,15 +1,11 @@
 package com.chitchatclub.api.service;
 
+import com.chitchatclub.api.entity.EmailBlastJob;
 import com.chitchatclub.api.entity.Session;
 import com.chitchatclub.api.entity.User;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
-import jakarta.mail.internet.MimeMessage;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
@@ -18,22 +14,21 @@ import java.util.List;
 @Service
 public class EmailService {
 
-    private static final Logger log = LoggerFactory.getLogger(EmailService.class);
     private static final int TOKEN_EXPIRY_HOURS = 48;
     private static final ZoneId EMAIL_DISPLAY_ZONE = ZoneId.of("Asia/Jakarta");
     private static final ZoneId UTC = ZoneId.of("UTC");
 
-    private final JavaMailSender mailSender;
+    private final EmailOutboxService outbox;
+    private final EmailBlastService blastService;
     private final VerificationTokenService tokenService;
 
-    @Value("${app.mail.from}")
-    private String fromAddress;
-
     @Value("${app.mail.frontend-url}")
     private String frontendUrl;
 
-    public EmailService(JavaMailSender mailSender, VerificationTokenService tokenService) {
-        this.mailSender = mailSender;
+    public EmailService(EmailOutboxService outbox, EmailBlastService blastService,
+                        VerificationTokenService tokenService) {
+        this.outbox = outbox;
+        this.blastService = blastService;
         this.tokenService = tokenService;
     }
 
@@ -95,6 +90,31 @@ public class EmailService {
         sendEmail(user.getEmail(), "Reset your password — ChitChatClub", html);
     }
 
+    public void sendWaitlistPromotionEmail(User user, Session session) {
+        String sessionLink = frontendUrl + "/sessions/" + session.getId();
+        String when = session.getStartDateTime().atZone(EMAIL_DISPLAY_ZONE)
+                .format(DateTimeFormatter.ofPattern("EEEE, MMMM d, yyyy 'at' HH:mm"));
+
+        String html = """
+            <div style="font-family: -apple-system, BlinkMacSystemFont, 'Segoe UI', Roboto, sans-serif; max-width: 560px; margin: 0 auto; padding: 2rem;">
+              <h2 style="color: #1B2A4A; margin-bottom: 0.5rem;">You're in!</h2>
+              <p style="color: #475569; line-height: 1.7;">
+                Hi <strong>%s</strong>, a seat opened up in <strong>%s</strong> on %s Asia/Jakarta (GMT+7), and you've been moved off the waitlist. You're now registered.
+              </p>
+              <div style="text-align: center; margin: 2rem 0;">
+                <a href="%s"
+                   style="display: inline-block; background: #2563eb; color: #fff; padding: 0.75rem 2rem; border-radius: 8px; text-decoration: none; font-weight: 600; font-size: 1rem;">
+                  View Session
+                </a>
+              </div>
+              <hr style="border: none; border-top: 1px solid #e2e8f0; margin: 2rem 0;">
+              <p style="color: #94a3b8; font-size: 0.8rem;">If you can no longer attend, please unregister so the next person on the waitlist can take your seat.</p>
+            </div>
+            """.formatted(escapeHtml(user.getFullName()), escapeHtml(session.getTitle()), when, sessionLink);
+
+        sendEmail(user.getEmail(), "You're off the waitlist — " + session.getTitle(), html);
+    }
+
     public String buildSessionEmailDefaultSubject(Session session) {
         ZonedDateTime zdt = session.getStartDateTime().atZone(EMAIL_DISPLAY_ZONE);
         String date = zdt.format(DateTimeFormatter.ofPattern("EEEE, MMM d 'at' HH:mm"));
@@ -131,23 +151,13 @@ public class EmailService {
         return sb.toString();
     }
 
-    public int sendSessionEmail(Session session, List<User> recipients, String subject, String body) {
+    public EmailBlastJob sendSessionEmail(Session session, List<User> recipients, String subject, String body) {
         String htmlBody = buildSessionEmailHtml(body, session);
-        int sent = 0;
-        for (User recipient : recipients) {
-            sendEmail(recipient.getEmail(), subject, htmlBody);
-            sent++;
-        }
-        log.info("Session email blast for '{}': sent to {} recipients", session.getTitle(), sent);
-        return sent;
+        return blastService.start(session, recipients.stream().map(User::getEmail).toList(), subject, htmlBody);
     }
 
     private String buildSessionEmailHtml(String plainTextBody, Session session) {
-        String escapedBody = plainTextBody
-                .replace("&", "&amp;")
-                .replace("<", "&lt;")
-                .replace(">", "&gt;")
-                .replace("\n", "<br>");
+        String escapedBody = escapeHtml(plainTextBody).replace("\n", "<br>");
 
         return """
             <div style="font-family: -apple-system, BlinkMacSystemFont, 'Segoe UI', Roboto, sans-serif; max-width: 560px; margin: 0 auto; padding: 2rem;">
@@ -175,18 +185,15 @@ public class EmailService {
         );
     }
 
+    private static String escapeHtml(String value) {
+        if (value == null) return "";
+        return value
+                .replace("&", "&amp;")
+                .replace("<", "&lt;")
+                .replace(">", "&gt;");
+    }
+
     private void sendEmail(String to, String subject, String html) {
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-            helper.setFrom(fromAddress);
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(html, true);
-            mailSender.send(message);
-            log.info("Email '{}' sent to {}", subject, to);
-        } catch (Exception e) {
-            log.error("Failed to send email '{}' to {}: {}", subject, to, e.getMessage());
-        }
+        outbox.enqueue(to, subject, html);
     }
 }
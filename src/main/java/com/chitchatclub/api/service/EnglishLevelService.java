@@ -21,17 +21,20 @@ public class EnglishLevelService {
     private final BreakoutRoomModeratorRepository breakoutRoomModeratorRepository;
     private final BreakoutRoomMemberRepository breakoutRoomMemberRepository;
     private final RegistrationRepository registrationRepository;
+    private final SessionRepository sessionRepository;
 
     public EnglishLevelService(UserRepository userRepository,
                                EnglishLevelHistoryRepository englishLevelHistoryRepository,
                                BreakoutRoomModeratorRepository breakoutRoomModeratorRepository,
                                BreakoutRoomMemberRepository breakoutRoomMemberRepository,
-                               RegistrationRepository registrationRepository) {
+                               RegistrationRepository registrationRepository,
+                               SessionRepository sessionRepository) {
         this.userRepository = userRepository;
         this.englishLevelHistoryRepository = englishLevelHistoryRepository;
         this.breakoutRoomModeratorRepository = breakoutRoomModeratorRepository;
         this.breakoutRoomMemberRepository = breakoutRoomMemberRepository;
         this.registrationRepository = registrationRepository;
+        this.sessionRepository = sessionRepository;
     }
 
     public UserResponse updateLevel(UUID targetUserId, UpdateEnglishLevelRequest request, User changedBy) {
@@ -51,6 +54,7 @@ public class EnglishLevelService {
         target.setEnglishLevelType(request.englishLevelType());
         target.setEnglishLevelValue(request.englishLevelValue());
         target = userRepository.save(target);
+        sessionRepository.bumpRosterVersionsOfRoomUser(targetUserId);
 
         return UserResponse.fromEntity(target, true);
     }
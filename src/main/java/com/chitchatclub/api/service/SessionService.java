@@ -2,20 +2,35 @@ package com.chitchatclub.api.service;
 
 import com.chitchatclub.api.dto.request.CreateSessionRequest;
 import com.chitchatclub.api.dto.request.UpdateSessionRequest;
+import com.chitchatclub.api.dto.response.CursorPageResponse;
 import com.chitchatclub.api.dto.response.RegistrationResponse;
 import com.chitchatclub.api.dto.response.SessionResponse;
+import com.chitchatclub.api.dto.response.WaitlistResponse;
 import com.chitchatclub.api.entity.Registration;
 import com.chitchatclub.api.entity.Session;
 import com.chitchatclub.api.entity.User;
+import com.chitchatclub.api.entity.WaitlistEntry;
 import com.chitchatclub.api.entity.enums.Role;
 import com.chitchatclub.api.entity.enums.SessionStatus;
 import com.chitchatclub.api.exception.BadRequestException;
 import com.chitchatclub.api.exception.ConflictException;
 import com.chitchatclub.api.exception.ResourceNotFoundException;
-import com.chitchatclub.api.repository.AppConfigRepository;
+import com.chitchatclub.api.metrics.OperationMetrics;
 import com.chitchatclub.api.repository.RegistrationRepository;
 import com.chitchatclub.api.repository.SessionRepository;
 import com.chitchatclub.api.repository.UserRepository;
+import com.chitchatclub.api.repository.WaitlistEntryRepository;
+import com.chitchatclub.api.repository.projection.SessionListing;
+import com.chitchatclub.api.security.UserPrincipalCache;
+import com.chitchatclub.api.service.settings.AppSettingsRegistry;
+import com.chitchatclub.api.util.ETags;
+import com.chitchatclub.api.util.KeysetCursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -29,19 +44,35 @@ import java.util.UUID;
 @Transactional
 public class SessionService {
 
+    private static final Logger log = LoggerFactory.getLogger(SessionService.class);
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final SessionRepository sessionRepository;
     private final RegistrationRepository registrationRepository;
     private final UserRepository userRepository;
-    private final AppConfigRepository appConfigRepository;
+    private final AppSettingsRegistry settingsRegistry;
+    private final UserPrincipalCache principalCache;
+    private final WaitlistEntryRepository waitlistRepository;
+    private final EmailService emailService;
+    private final OperationMetrics metrics;
 
     public SessionService(SessionRepository sessionRepository,
                           RegistrationRepository registrationRepository,
                           UserRepository userRepository,
-                          AppConfigRepository appConfigRepository) {
+                          AppSettingsRegistry settingsRegistry,
+                          UserPrincipalCache principalCache,
+                          WaitlistEntryRepository waitlistRepository,
+                          EmailService emailService,
+                          OperationMetrics metrics) {
         this.sessionRepository = sessionRepository;
         this.registrationRepository = registrationRepository;
         this.userRepository = userRepository;
-        this.appConfigRepository = appConfigRepository;
+        this.settingsRegistry = settingsRegistry;
+        this.principalCache = principalCache;
+        this.waitlistRepository = waitlistRepository;
+        this.emailService = emailService;
+        this.metrics = metrics;
     }
 
     public SessionResponse createSession(CreateSessionRequest request, User creator) {
@@ -74,32 +105,48 @@ public class SessionService {
         if (request.zoomPassword() != null) session.setZoomPassword(request.zoomPassword());
 
         session = sessionRepository.save(session);
+        if (request.maxParticipants() != null || request.status() == SessionStatus.OPEN) {
+            promoteFromWaitlist(session);
+        }
         long count = registrationRepository.countBySessionId(session.getId());
         return SessionResponse.fromEntity(session, count);
     }
 
     @Transactional(readOnly = true)
     public List<SessionResponse> getOpenSessions() {
-        return sessionRepository.findByStatus(SessionStatus.OPEN).stream()
-                .map(s -> SessionResponse.fromEntity(s, registrationRepository.countBySessionId(s.getId())))
+        return sessionRepository.findListingsByStatus(SessionStatus.OPEN).stream()
+                .map(SessionResponse::fromListing)
                 .toList();
     }
 
+    /** ETag of {@link #getOpenSessions()}, from the versions of the open sessions and their creators. */
+    @Transactional(readOnly = true)
+    public String getOpenSessionsETag() {
+        return ETags.digest(sessionRepository.findVersionsByStatus(SessionStatus.OPEN).stream()
+                .map(v -> v.id() + ":" + v.version() + ":" + v.rosterVersion() + ":" + v.creatorVersion())
+                .toList());
+    }
+
     @Transactional(readOnly = true)
     public List<SessionResponse> getUpcomingSessions() {
-        return sessionRepository.findByStatusAndStartDateTimeAfterOrderByStartDateTimeAsc(
-                        SessionStatus.OPEN, Instant.now())
+        return sessionRepository.findUpcomingListings(SessionStatus.OPEN, Instant.now(), PageRequest.of(0, 3))
                 .stream()
-                .limit(3)
-                .map(s -> SessionResponse.fromEntity(s, registrationRepository.countBySessionId(s.getId())))
+                .map(SessionResponse::fromListing)
                 .toList();
     }
 
     @Transactional(readOnly = true)
-    public List<SessionResponse> getAllSessionsForAdmin() {
-        return sessionRepository.findAll().stream()
-                .map(s -> SessionResponse.fromEntity(s, registrationRepository.countBySessionId(s.getId()), true))
-                .toList();
+    public CursorPageResponse<SessionResponse> getSessionsForAdmin(SessionStatus status, Instant from, Instant to,
+                                                                   String cursor, Integer limit) {
+        int pageSize = pageSize(limit);
+        KeysetCursor after = cursor != null ? KeysetCursor.decode(cursor) : null;
+        List<SessionListing> rows = sessionRepository.findListingsPage(status, from, to,
+                after != null ? after.positionAsInstant() : null,
+                after != null ? after.id() : null,
+                pageSize + 1);
+        return CursorPageResponse.of(rows, pageSize,
+                listing -> SessionResponse.fromListing(listing, true),
+                listing -> KeysetCursor.of(listing.session().getStartDateTime(), listing.session().getId()));
     }
 
     @Transactional(readOnly = true)
@@ -110,6 +157,14 @@ public class SessionService {
         return SessionResponse.fromEntity(session, count);
     }
 
+    /** ETag of {@link #getSessionById(UUID)}, or {@code null} if there is no such session. */
+    @Transactional(readOnly = true)
+    public String getSessionETag(UUID id) {
+        return sessionRepository.findVersionById(id)
+                .map(v -> ETags.of(v.version(), v.rosterVersion(), v.creatorVersion()))
+                .orElse(null);
+    }
+
     @Transactional(readOnly = true)
     public Session getSessionEntity(UUID id) {
         return sessionRepository.findById(id)
@@ -117,12 +172,131 @@ public class SessionService {
     }
 
     public RegistrationResponse registerUser(UUID sessionId, User user, boolean asModerator) {
+        return metrics.record("sessions.registration", () -> register(sessionId, user, asModerator),
+                "role", asModerator ? "moderator" : "participant");
+    }
+
+    private RegistrationResponse register(UUID sessionId, User user, boolean asModerator) {
+        Session session = getSessionEntity(sessionId);
+        checkCanRegister(session, user, asModerator);
+
+        if (registrationRepository.existsBySessionIdAndUserId(sessionId, user.getId())) {
+            throw new ConflictException("User already registered for this session");
+        }
+        if (sessionRepository.tryReserveSeat(sessionId) == 0) {
+            throw new BadRequestException("Session is full");
+        }
+
+        Registration registration = insertRegistration(session, user, asModerator);
+        waitlistRepository.deleteBySessionIdAndUserId(sessionId, user.getId());
+        return RegistrationResponse.fromEntity(registration);
+    }
+
+    public void unregisterUser(UUID sessionId, User user) {
+        Registration registration = registrationRepository
+                .findBySessionIdAndUserId(sessionId, user.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Registration not found"));
+
+        Session session = registration.getSession();
+        int cutoffHours = settingsRegistry.get().unregisterCutoffHours();
+        if (session.getStartDateTime() != null
+                && session.getStartDateTime().minus(cutoffHours, ChronoUnit.HOURS).isBefore(Instant.now())) {
+            throw new BadRequestException(
+                    "You cannot unregister within " + cutoffHours + " hours of the session start time.");
+        }
+
+        registrationRepository.delete(registration);
+        sessionRepository.releaseSeat(sessionId);
+        promoteFromWaitlist(session);
+    }
+
+    /**
+     * Registers the user straight away if a seat is free, otherwise queues
+     * them. Queued users are promoted in order as seats open up.
+     */
+    public WaitlistResponse joinWaitlist(UUID sessionId, User user, boolean asModerator) {
         Session session = getSessionEntity(sessionId);
+        checkCanRegister(session, user, asModerator);
+
+        if (registrationRepository.existsBySessionIdAndUserId(sessionId, user.getId())) {
+            throw new ConflictException("User already registered for this session");
+        }
+        if (sessionRepository.tryReserveSeat(sessionId) == 1) {
+            insertRegistration(session, user, asModerator);
+            waitlistRepository.deleteBySessionIdAndUserId(sessionId, user.getId());
+            return WaitlistResponse.registered(sessionId);
+        }
+
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setSession(session);
+        entry.setUser(user);
+        entry.setAsModerator(asModerator);
+        try {
+            entry = waitlistRepository.saveAndFlush(entry);
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictException("User is already on the waitlist for this session");
+        }
+        return toWaitlistResponse(entry);
+    }
+
+    public void leaveWaitlist(UUID sessionId, User user) {
+        if (waitlistRepository.deleteBySessionIdAndUserId(sessionId, user.getId()) == 0) {
+            throw new ResourceNotFoundException("Waitlist entry not found");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public WaitlistResponse getWaitlistPosition(UUID sessionId, UUID userId) {
+        WaitlistEntry entry = waitlistRepository.findBySessionIdAndUserId(sessionId, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Waitlist entry not found"));
+        return toWaitlistResponse(entry);
+    }
+
+    /**
+     * Moves queued users into free seats. The head entry is locked with SKIP
+     * LOCKED and the seat is taken with the same conditional UPDATE used by
+     * registerUser, so concurrent promotions never hand out the same seat or
+     * the same entry twice. Entries of users who may no longer register, e.g.
+     * blacklisted since they queued or no longer moderators, are dropped.
+     */
+    private void promoteFromWaitlist(Session session) {
+        PageRequest head = PageRequest.of(0, 1);
+        while (true) {
+            List<WaitlistEntry> next = waitlistRepository.findNextForUpdate(session.getId(), head);
+            if (next.isEmpty()) {
+                return;
+            }
+            WaitlistEntry entry = next.get(0);
+            User user = entry.getUser();
+            if (registrationRepository.existsBySessionIdAndUserId(session.getId(), user.getId())) {
+                waitlistRepository.delete(entry);
+                continue;
+            }
+            try {
+                checkUserCanRegister(user, entry.isAsModerator());
+            } catch (BadRequestException e) {
+                waitlistRepository.delete(entry);
+                log.info("Dropped {} from the waitlist of session {}: {}", user.getEmail(), session.getId(), e.getMessage());
+                continue;
+            }
+            if (sessionRepository.tryReserveSeat(session.getId()) == 0) {
+                return;
+            }
+            insertRegistration(session, user, entry.isAsModerator());
+            waitlistRepository.delete(entry);
+            emailService.sendWaitlistPromotionEmail(user, session);
+            log.info("Promoted {} from the waitlist of session {}", user.getEmail(), session.getId());
+        }
+    }
 
+    private void checkCanRegister(Session session, User user, boolean asModerator) {
         if (session.getStatus() != SessionStatus.OPEN) {
             throw new BadRequestException("Session is not open for registration");
         }
+        checkUserCanRegister(user, asModerator);
+    }
 
+    private void checkUserCanRegister(User user, boolean asModerator) {
         if (asModerator) {
             Role role = user.getRole();
             if (role != Role.MODERATOR && role != Role.ADMIN && role != Role.SUPER_ADMIN) {
@@ -137,49 +311,43 @@ public class SessionService {
             user.setBlacklistedUntil(null);
             user.setNoShowCount(0);
             userRepository.save(user);
+            sessionRepository.bumpRosterVersionsOfRoomUser(user.getId());
+            principalCache.evict(user.getEmail());
         }
+    }
 
-        long currentCount = registrationRepository.countBySessionId(sessionId);
-        if (currentCount >= session.getMaxParticipants()) {
-            throw new BadRequestException("Session is full");
-        }
-
-        if (registrationRepository.existsBySessionIdAndUserId(sessionId, user.getId())) {
-            throw new ConflictException("User already registered for this session");
-        }
-
+    private Registration insertRegistration(Session session, User user, boolean asModerator) {
         Registration registration = new Registration();
         registration.setSession(session);
         registration.setUser(user);
         registration.setRegisteredAsModerator(asModerator);
-        registration = registrationRepository.save(registration);
-
-        return RegistrationResponse.fromEntity(registration);
-    }
-
-    public void unregisterUser(UUID sessionId, User user) {
-        Registration registration = registrationRepository
-                .findBySessionIdAndUserId(sessionId, user.getId())
-                .orElseThrow(() -> new ResourceNotFoundException("Registration not found"));
-
-        Session session = registration.getSession();
-        int cutoffHours = appConfigRepository.findById("unregister_cutoff_hours")
-                .map(c -> { try { return Integer.parseInt(c.getConfigValue()); } catch (NumberFormatException e) { return 24; } })
-                .orElse(24);
-        if (session.getStartDateTime() != null
-                && session.getStartDateTime().minus(cutoffHours, ChronoUnit.HOURS).isBefore(Instant.now())) {
-            throw new BadRequestException(
-                    "You cannot unregister within " + cutoffHours + " hours of the session start time.");
+        try {
+            return registrationRepository.saveAndFlush(registration);
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictException("User already registered for this session");
         }
+    }
 
-        registrationRepository.delete(registration);
+    private WaitlistResponse toWaitlistResponse(WaitlistEntry entry) {
+        long ahead = waitlistRepository.countAhead(entry.getSession().getId(), entry.getCreatedAt(), entry.getId());
+        return WaitlistResponse.waiting(entry.getSession().getId(), ahead + 1, entry.getCreatedAt());
     }
 
     @Transactional(readOnly = true)
-    public List<RegistrationResponse> getRegistrations(UUID sessionId) {
-        return registrationRepository.findBySessionId(sessionId).stream()
-                .map(RegistrationResponse::fromEntity)
-                .toList();
+    public CursorPageResponse<RegistrationResponse> getRegistrations(UUID sessionId, String cursor, Integer limit) {
+        int pageSize = pageSize(limit);
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<Registration> rows;
+        if (cursor == null) {
+            rows = registrationRepository.findPageBySessionId(sessionId, page);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = registrationRepository.findPageBySessionIdAfter(
+                    sessionId, after.positionAsLocalDateTime(), after.id(), page);
+        }
+        return CursorPageResponse.of(rows, pageSize,
+                RegistrationResponse::fromEntity,
+                reg -> KeysetCursor.of(reg.getCreatedAt(), reg.getId()));
     }
 
     @Transactional(readOnly = true)
@@ -192,15 +360,36 @@ public class SessionService {
 
     @Transactional(readOnly = true)
     public List<SessionResponse> getMyRegisteredSessions(UUID userId) {
-        return registrationRepository.findByUserId(userId).stream()
-                .map(reg -> {
-                    Session session = reg.getSession();
-                    long count = registrationRepository.countBySessionId(session.getId());
-                    return SessionResponse.fromEntity(session, count);
-                })
+        return sessionRepository.findListingsByRegisteredUser(userId).stream()
+                .map(SessionResponse::fromListing)
                 .toList();
     }
 
+    /**
+     * Repairs counters that drifted from the registrations table. Candidates
+     * are found without locks and then locked and recounted, so registrations
+     * in flight are waited for instead of being missed by a stale snapshot.
+     * When nothing drifted, nothing is written.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileRegisteredCounts() {
+        List<UUID> drifted = sessionRepository.findIdsWithDriftedRegisteredCount();
+        if (drifted.isEmpty()) {
+            return;
+        }
+        sessionRepository.lockByIds(drifted);
+        int updated = sessionRepository.reconcileRegisteredCounts(drifted);
+        if (updated > 0) {
+            log.info("Reconciled registered counts for {} session(s)", updated);
+        }
+    }
+
+    private static int pageSize(Integer limit) {
+        if (limit == null) return DEFAULT_PAGE_SIZE;
+        if (limit < 1) throw new BadRequestException("limit must be at least 1");
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
     private String generateAttendanceCode() {
         return String.format("%02d", new java.util.Random().nextInt(100));
     }
@@ -0,0 +1,60 @@
+package com.chitchatclub.api.service;
+
+import com.chitchatclub.api.repository.PasswordResetTokenRepository;
+import com.chitchatclub.api.repository.RefreshTokenRepository;
+import com.chitchatclub.api.repository.VerificationTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.function.BiFunction;
+
+/**
+ * Deletes expired refresh, verification and password reset tokens. Each batch is its
+ * own short transaction and skips rows locked by another instance running the same
+ * purge.
+ */
+@Service
+public class TokenCleanupService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenCleanupService.class);
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final VerificationTokenRepository verificationTokenRepository;
+    private final PasswordResetTokenRepository passwordResetTokenRepository;
+    private final int batchSize;
+
+    public TokenCleanupService(RefreshTokenRepository refreshTokenRepository,
+                               VerificationTokenRepository verificationTokenRepository,
+                               PasswordResetTokenRepository passwordResetTokenRepository,
+                               @Value("${app.tokens.purge-batch-size}") int batchSize) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.verificationTokenRepository = verificationTokenRepository;
+        this.passwordResetTokenRepository = passwordResetTokenRepository;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(initialDelayString = "${app.tokens.purge-initial-delay-ms}",
+            fixedDelayString = "${app.tokens.purge-interval-ms}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        purge("refresh", now, refreshTokenRepository::deleteExpired);
+        purge("verification", now, verificationTokenRepository::deleteExpired);
+        purge("password reset", now, passwordResetTokenRepository::deleteExpired);
+    }
+
+    private void purge(String kind, LocalDateTime now, BiFunction<LocalDateTime, Integer, Integer> deleteBatch) {
+        int total = 0;
+        int deleted;
+        do {
+            deleted = deleteBatch.apply(now, batchSize);
+            total += deleted;
+        } while (deleted == batchSize);
+        if (total > 0) {
+            log.info("Purged {} expired {} token(s)", total, kind);
+        }
+    }
+}
@@ -4,18 +4,45 @@ import com.chitchatclub.api.dto.response.UserResponse;
 import com.chitchatclub.api.entity.User;
 import com.chitchatclub.api.entity.enums.Role;
 import com.chitchatclub.api.exception.ResourceNotFoundException;
+import com.chitchatclub.api.repository.SessionRepository;
 import com.chitchatclub.api.repository.UserRepository;
+import com.chitchatclub.api.security.TokenVersionCache;
+import com.chitchatclub.api.security.UserPrincipalCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.List;
 import java.util.UUID;
 
 @Service
 public class UserService {
 
+    private static final Logger log = LoggerFactory.getLogger(UserService.class);
+    private static final int BACKFILL_BATCH_SIZE = 500;
+
     private final UserRepository userRepository;
+    private final SessionRepository sessionRepository;
+    private final UserPrincipalCache principalCache;
+    private final TokenVersionCache tokenVersions;
+    private final TransactionTemplate transactionTemplate;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository,
+                       SessionRepository sessionRepository,
+                       UserPrincipalCache principalCache,
+                       TokenVersionCache tokenVersions,
+                       PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
+        this.sessionRepository = sessionRepository;
+        this.principalCache = principalCache;
+        this.tokenVersions = tokenVersions;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     public User getUserById(UUID id) {
@@ -27,10 +54,24 @@ public class UserService {
         return UserResponse.fromEntity(getUserById(id), true);
     }
 
+    /**
+     * Saves changes to fields shown in breakout room rosters (name, role, level) and
+     * bumps the roster version of every session seating the user.
+     */
+    @Transactional
+    public User saveRosterProfile(User user) {
+        User saved = userRepository.save(user);
+        sessionRepository.bumpRosterVersionsOfRoomUser(saved.getId());
+        return saved;
+    }
+
+    @Transactional
     public UserResponse changeRole(UUID userId, Role newRole) {
         User user = getUserById(userId);
         user.setRole(newRole);
-        user = userRepository.save(user);
+        user = saveRosterProfile(user);
+        principalCache.evict(user.getEmail());
+        tokenVersions.bump(user.getId());
         return UserResponse.fromEntity(user, true);
     }
 
@@ -38,4 +79,26 @@ public class UserService {
         return userRepository.findByEmail(email)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + email));
     }
+
+    /**
+     * Fills the stored level buckets for rows written before the columns existed
+     * (or inserted directly via SQL). Runs in batches so each transaction stays small.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillLevelBuckets() {
+        int total = 0;
+        int batch;
+        do {
+            batch = transactionTemplate.execute(status -> {
+                List<User> users = userRepository.findByEffectiveLevelBucketIsNull(
+                        PageRequest.of(0, BACKFILL_BATCH_SIZE));
+                users.forEach(User::refreshLevelBuckets);
+                return users.size();
+            });
+            total += batch;
+        } while (batch == BACKFILL_BATCH_SIZE);
+        if (total > 0) {
+            log.info("Backfilled level buckets for {} user(s)", total);
+        }
+    }
 }
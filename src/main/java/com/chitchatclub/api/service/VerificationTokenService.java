@@ -4,6 +4,7 @@ import com.chitchatclub.api.entity.User;
 import com.chitchatclub.api.entity.VerificationToken;
 import com.chitchatclub.api.repository.UserRepository;
 import com.chitchatclub.api.repository.VerificationTokenRepository;
+import com.chitchatclub.api.util.TokenHashes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -33,12 +34,13 @@ public class VerificationTokenService {
 
         User managedUser = userRepository.getReferenceById(userId);
 
+        String token = TokenHashes.newToken();
         VerificationToken vt = new VerificationToken();
-        vt.setToken(UUID.randomUUID().toString());
+        vt.setTokenHash(TokenHashes.sha256Hex(token));
         vt.setUser(managedUser);
         vt.setExpiresAt(LocalDateTime.now().plusHours(TOKEN_EXPIRY_HOURS));
         tokenRepository.saveAndFlush(vt);
-        log.info("Verification token saved — token: {}", vt.getToken());
-        return vt.getToken();
+        log.info("Verification token saved for user {}", userId);
+        return token;
     }
 }
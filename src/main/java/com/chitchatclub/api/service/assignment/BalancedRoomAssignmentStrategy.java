@@ -0,0 +1,162 @@
+package com.chitchatclub.api.service.assignment;
+
+import com.chitchatclub.api.entity.User;
+import com.chitchatclub.api.entity.enums.LevelBucket;
+import com.chitchatclub.api.util.EnglishLevelNormalizer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds rooms whose sizes differ by at most one. Participants are ordered by
+ * level and cut into consecutive rooms, so a bucket too small for a room of its
+ * own is merged with the adjacent level instead of leaving someone alone.
+ * A first-improvement local search then swaps people between nearby rooms to
+ * reduce level spread and repeat pairings from {@link PairingHistory}.
+ * Participants without a level are neutral and fill gaps wherever they fit.
+ */
+@Component
+public class BalancedRoomAssignmentStrategy implements RoomAssignmentStrategy {
+
+    public static final String NAME = "balanced";
+
+    private static final int NO_LEVEL = -1;
+    private static final int LEVEL_GAP_WEIGHT = 1;
+    private static final int REPEAT_PAIRING_WEIGHT = 3;
+    private static final int NEIGHBOUR_ROOMS = 4;
+    private static final int MAX_PASSES = 8;
+
+    private static final LevelBucket[] BUCKETS = LevelBucket.values();
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean usesPairingHistory() {
+        return true;
+    }
+
+    @Override
+    public List<RoomAssignment> assign(List<User> participants, int roomCapacity, PairingHistory history) {
+        int n = participants.size();
+        if (n == 0) {
+            return List.of();
+        }
+
+        int[] levels = new int[n];
+        for (int i = 0; i < n; i++) {
+            LevelBucket bucket = EnglishLevelNormalizer.getEffectiveLevel(participants.get(i));
+            levels[i] = bucket == LevelBucket.UNSPECIFIED ? NO_LEVEL : bucket.ordinal();
+        }
+
+        int roomCount = (n + roomCapacity - 1) / roomCapacity;
+        int[] roomStart = new int[roomCount + 1];
+        int baseSize = n / roomCount;
+        int larger = n % roomCount;
+        for (int r = 0; r < roomCount; r++) {
+            roomStart[r + 1] = roomStart[r] + baseSize + (r < larger ? 1 : 0);
+        }
+
+        int[] slots = sortByLevel(levels);
+        improve(slots, roomStart, levels, history);
+
+        List<RoomAssignment> rooms = new ArrayList<>(roomCount);
+        for (int r = 0; r < roomCount; r++) {
+            List<User> members = new ArrayList<>(roomStart[r + 1] - roomStart[r]);
+            int[] counts = new int[BUCKETS.length];
+            for (int p = roomStart[r]; p < roomStart[r + 1]; p++) {
+                members.add(participants.get(slots[p]));
+                if (levels[slots[p]] != NO_LEVEL) {
+                    counts[levels[slots[p]]]++;
+                }
+            }
+            rooms.add(new RoomAssignment(dominantBucket(counts), members));
+        }
+        return rooms;
+    }
+
+    private static int[] sortByLevel(int[] levels) {
+        int buckets = BUCKETS.length + 1;
+        int[] starts = new int[buckets + 1];
+        for (int level : levels) {
+            starts[rank(level) + 1]++;
+        }
+        for (int b = 0; b < buckets; b++) {
+            starts[b + 1] += starts[b];
+        }
+        int[] sorted = new int[levels.length];
+        for (int i = 0; i < levels.length; i++) {
+            sorted[starts[rank(levels[i])]++] = i;
+        }
+        return sorted;
+    }
+
+    private static int rank(int level) {
+        return level == NO_LEVEL ? BUCKETS.length : level;
+    }
+
+    private static void improve(int[] slots, int[] roomStart, int[] levels, PairingHistory history) {
+        int roomCount = roomStart.length - 1;
+        for (int pass = 0; pass < MAX_PASSES; pass++) {
+            boolean improved = false;
+            for (int r1 = 0; r1 < roomCount; r1++) {
+                int lastNeighbour = Math.min(roomCount - 1, r1 + NEIGHBOUR_ROOMS);
+                for (int r2 = r1 + 1; r2 <= lastNeighbour; r2++) {
+                    for (int p = roomStart[r1]; p < roomStart[r1 + 1]; p++) {
+                        for (int q = roomStart[r2]; q < roomStart[r2 + 1]; q++) {
+                            if (swapDelta(slots, roomStart, r1, r2, p, q, levels, history) < 0) {
+                                int tmp = slots[p];
+                                slots[p] = slots[q];
+                                slots[q] = tmp;
+                                improved = true;
+                            }
+                        }
+                    }
+                }
+            }
+            if (!improved) {
+                return;
+            }
+        }
+    }
+
+    private static int swapDelta(int[] slots, int[] roomStart, int r1, int r2, int p, int q,
+                                 int[] levels, PairingHistory history) {
+        int a = slots[p];
+        int b = slots[q];
+        int delta = 0;
+        for (int x = roomStart[r1]; x < roomStart[r1 + 1]; x++) {
+            if (x != p) {
+                delta += pairCost(b, slots[x], levels, history) - pairCost(a, slots[x], levels, history);
+            }
+        }
+        for (int y = roomStart[r2]; y < roomStart[r2 + 1]; y++) {
+            if (y != q) {
+                delta += pairCost(a, slots[y], levels, history) - pairCost(b, slots[y], levels, history);
+            }
+        }
+        return delta;
+    }
+
+    private static int pairCost(int a, int b, int[] levels, PairingHistory history) {
+        int cost = 0;
+        if (levels[a] != NO_LEVEL && levels[b] != NO_LEVEL) {
+            int gap = levels[a] - levels[b];
+            cost += LEVEL_GAP_WEIGHT * gap * gap;
+        }
+        return cost + REPEAT_PAIRING_WEIGHT * history.timesMet(a, b);
+    }
+
+    private static LevelBucket dominantBucket(int[] counts) {
+        int best = NO_LEVEL;
+        for (int level = 0; level < counts.length; level++) {
+            if (counts[level] > 0 && (best == NO_LEVEL || counts[level] > counts[best])) {
+                best = level;
+            }
+        }
+        return best == NO_LEVEL ? LevelBucket.UNSPECIFIED : BUCKETS[best];
+    }
+}
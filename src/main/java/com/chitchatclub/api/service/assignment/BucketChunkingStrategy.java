@@ -0,0 +1,43 @@
+package com.chitchatclub.api.service.assignment;
+
+import com.chitchatclub.api.entity.User;
+import com.chitchatclub.api.entity.enums.LevelBucket;
+import com.chitchatclub.api.util.EnglishLevelNormalizer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Groups participants by level bucket and slices each bucket into rooms of
+ * {@code roomCapacity}, leaving any remainder in a smaller last room.
+ */
+@Component
+public class BucketChunkingStrategy implements RoomAssignmentStrategy {
+
+    public static final String NAME = "bucket";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public List<RoomAssignment> assign(List<User> participants, int roomCapacity, PairingHistory history) {
+        Map<LevelBucket, List<User>> usersByBucket = participants.stream()
+                .collect(Collectors.groupingBy(EnglishLevelNormalizer::getEffectiveLevel, TreeMap::new, Collectors.toList()));
+
+        List<RoomAssignment> rooms = new ArrayList<>();
+        for (Map.Entry<LevelBucket, List<User>> entry : usersByBucket.entrySet()) {
+            List<User> users = entry.getValue();
+            for (int i = 0; i < users.size(); i += roomCapacity) {
+                rooms.add(new RoomAssignment(entry.getKey(),
+                        new ArrayList<>(users.subList(i, Math.min(i + roomCapacity, users.size())))));
+            }
+        }
+        return rooms;
+    }
+}
@@ -0,0 +1,103 @@
+package com.chitchatclub.api.service.assignment;
+
+import com.chitchatclub.api.entity.User;
+import com.chitchatclub.api.repository.projection.RoomMembershipRow;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * How often each pair of participants has shared a breakout room before,
+ * indexed by position in the participant list. Stored as a compressed sparse
+ * row adjacency: the sorted neighbours of participant {@code i} live in
+ * {@code neighbours[offsets[i] .. offsets[i + 1])}, repeated once per meeting.
+ */
+public final class PairingHistory {
+
+    private static final PairingHistory EMPTY = new PairingHistory(new int[1], new int[0]);
+
+    private final int[] offsets;
+    private final int[] neighbours;
+
+    private PairingHistory(int[] offsets, int[] neighbours) {
+        this.offsets = offsets;
+        this.neighbours = neighbours;
+    }
+
+    public static PairingHistory empty() {
+        return EMPTY;
+    }
+
+    public static PairingHistory build(List<User> participants, List<RoomMembershipRow> memberships) {
+        int n = participants.size();
+        if (n == 0 || memberships.isEmpty()) {
+            return EMPTY;
+        }
+
+        Map<UUID, Integer> indexByUser = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            indexByUser.put(participants.get(i).getId(), i);
+        }
+        Map<UUID, List<Integer>> membersByRoom = new HashMap<>();
+        for (RoomMembershipRow row : memberships) {
+            Integer idx = indexByUser.get(row.userId());
+            if (idx != null) {
+                membersByRoom.computeIfAbsent(row.roomId(), r -> new ArrayList<>()).add(idx);
+            }
+        }
+
+        int[] offsets = new int[n + 1];
+        for (List<Integer> room : membersByRoom.values()) {
+            for (int member : room) {
+                offsets[member + 1] += room.size() - 1;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+
+        int[] neighbours = new int[offsets[n]];
+        int[] cursor = Arrays.copyOf(offsets, n);
+        for (List<Integer> room : membersByRoom.values()) {
+            for (int a : room) {
+                for (int b : room) {
+                    if (a != b) {
+                        neighbours[cursor[a]++] = b;
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            Arrays.sort(neighbours, offsets[i], offsets[i + 1]);
+        }
+        return new PairingHistory(offsets, neighbours);
+    }
+
+    public int timesMet(int a, int b) {
+        if (a + 1 >= offsets.length) {
+            return 0;
+        }
+        int from = offsets[a];
+        int to = offsets[a + 1];
+        if (from == to) {
+            return 0;
+        }
+        int pos = Arrays.binarySearch(neighbours, from, to, b);
+        if (pos < 0) {
+            return 0;
+        }
+        int lo = pos;
+        while (lo > from && neighbours[lo - 1] == b) lo--;
+        int hi = pos;
+        while (hi + 1 < to && neighbours[hi + 1] == b) hi++;
+        return hi - lo + 1;
+    }
+
+    public boolean isEmpty() {
+        return neighbours.length == 0;
+    }
+}
@@ -0,0 +1,11 @@
+package com.chitchatclub.api.service.assignment;
+
+import com.chitchatclub.api.entity.User;
+import com.chitchatclub.api.entity.enums.LevelBucket;
+
+import java.util.List;
+
+public record RoomAssignment(
+        LevelBucket levelBucket,
+        List<User> members
+) {}
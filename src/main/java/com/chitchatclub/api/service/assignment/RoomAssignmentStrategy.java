@@ -0,0 +1,20 @@
+package com.chitchatclub.api.service.assignment;
+
+import com.chitchatclub.api.entity.User;
+
+import java.util.List;
+
+/**
+ * Splits the participants of a session into breakout rooms. Moderators are
+ * distributed by the caller afterwards.
+ */
+public interface RoomAssignmentStrategy {
+
+    String name();
+
+    List<RoomAssignment> assign(List<User> participants, int roomCapacity, PairingHistory history);
+
+    default boolean usesPairingHistory() {
+        return false;
+    }
+}
@@ -0,0 +1,15 @@
+package com.chitchatclub.api.service.bus;
+
+import java.util.function.Consumer;
+
+/**
+ * Fan-out of small string messages to every application node. Listeners are
+ * invoked on the bus's own delivery thread, never on the publisher's, and a
+ * node receives its own messages through the same path as everyone else's.
+ */
+public interface ClusterMessageBus {
+
+    void publish(String channel, String payload);
+
+    void subscribe(String channel, Consumer<String> listener);
+}
@@ -0,0 +1,55 @@
+package com.chitchatclub.api.service.bus;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/** Single-node bus. Messages are delivered in publish order on one dispatch thread. */
+@Component
+@ConditionalOnProperty(name = "app.bus.backend", havingValue = "local", matchIfMissing = true)
+public class LocalMessageBus implements ClusterMessageBus, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalMessageBus.class);
+
+    private final Map<String, List<Consumer<String>>> listeners = new ConcurrentHashMap<>();
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "local-message-bus");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Override
+    public void publish(String channel, String payload) {
+        dispatcher.execute(() -> deliver(listeners.getOrDefault(channel, List.of()), channel, payload));
+    }
+
+    @Override
+    public void subscribe(String channel, Consumer<String> listener) {
+        listeners.computeIfAbsent(channel, c -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    static void deliver(List<Consumer<String>> targets, String channel, String payload) {
+        for (Consumer<String> listener : targets) {
+            try {
+                listener.accept(payload);
+            } catch (RuntimeException e) {
+                log.warn("Listener on channel {} failed: {}", channel, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        dispatcher.shutdown();
+    }
+}
@@ -0,0 +1,128 @@
+package com.chitchatclub.api.service.bus;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Multi-node bus on Postgres LISTEN/NOTIFY. One pooled connection is held by a
+ * listener thread that LISTENs on every subscribed channel and dispatches
+ * notifications; it reconnects after failures. Payloads must stay under the
+ * 8000-byte NOTIFY limit, and messages sent while a node is disconnected are
+ * not replayed to it.
+ */
+@Component
+@ConditionalOnProperty(name = "app.bus.backend", havingValue = "postgres")
+public class PostgresMessageBus implements ClusterMessageBus, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresMessageBus.class);
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+    private static final int POLL_TIMEOUT_MS = 500;
+
+    private final DataSource dataSource;
+    private final long reconnectDelayMs;
+    private final Map<String, List<Consumer<String>>> listeners = new ConcurrentHashMap<>();
+    private final Thread listenerThread;
+    private volatile boolean running = true;
+
+    public PostgresMessageBus(DataSource dataSource,
+                              @Value("${app.bus.postgres.reconnect-delay-ms}") long reconnectDelayMs) {
+        this.dataSource = dataSource;
+        this.reconnectDelayMs = reconnectDelayMs;
+        this.listenerThread = new Thread(this::listenLoop, "pg-notify-listener");
+        this.listenerThread.setDaemon(true);
+        this.listenerThread.start();
+    }
+
+    @Override
+    public void publish(String channel, String payload) {
+        requireValidChannel(channel);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            statement.setString(1, channel);
+            statement.setString(2, payload);
+            statement.execute();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to publish to channel " + channel, e);
+        }
+    }
+
+    @Override
+    public void subscribe(String channel, Consumer<String> listener) {
+        requireValidChannel(channel);
+        listeners.computeIfAbsent(channel, c -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    private void listenLoop() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                Set<String> listening = new HashSet<>();
+                while (running) {
+                    listenToNewChannels(connection, listening);
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications == null) continue;
+                    for (PGNotification notification : notifications) {
+                        LocalMessageBus.deliver(listeners.getOrDefault(notification.getName(), List.of()),
+                                notification.getName(), notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) return;
+                log.warn("Postgres listener connection lost, reconnecting in {} ms: {}", reconnectDelayMs, e.getMessage());
+                sleepBeforeReconnect();
+            }
+        }
+    }
+
+    private void listenToNewChannels(Connection connection, Set<String> listening) throws SQLException {
+        for (String channel : listeners.keySet()) {
+            if (listening.add(channel)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+            }
+        }
+    }
+
+    private void sleepBeforeReconnect() {
+        try {
+            Thread.sleep(reconnectDelayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private static void requireValidChannel(String channel) {
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid channel name: " + channel);
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        listenerThread.interrupt();
+        listenerThread.join(POLL_TIMEOUT_MS * 2L);
+    }
+}
@@ -0,0 +1,34 @@
+package com.chitchatclub.api.service.live;
+
+import com.chitchatclub.api.dto.response.UserResponse;
+
+import java.util.UUID;
+
+/**
+ * A change to the breakout rooms of one session. {@code fromRoomId} is set for
+ * removals and moves, {@code toRoomId} for additions and moves; {@code user}
+ * is null when rooms are regenerated and clients should refetch the roster.
+ */
+public record RoomChangeEvent(
+        UUID sessionId,
+        RoomChangeType type,
+        UUID fromRoomId,
+        UUID toRoomId,
+        UserResponse user
+) {
+    public static RoomChangeEvent memberAdded(UUID sessionId, UUID roomId, UserResponse user) {
+        return new RoomChangeEvent(sessionId, RoomChangeType.MEMBER_ADDED, null, roomId, user);
+    }
+
+    public static RoomChangeEvent memberRemoved(UUID sessionId, UUID roomId, UserResponse user) {
+        return new RoomChangeEvent(sessionId, RoomChangeType.MEMBER_REMOVED, roomId, null, user);
+    }
+
+    public static RoomChangeEvent memberMoved(UUID sessionId, UUID fromRoomId, UUID toRoomId, UserResponse user) {
+        return new RoomChangeEvent(sessionId, RoomChangeType.MEMBER_MOVED, fromRoomId, toRoomId, user);
+    }
+
+    public static RoomChangeEvent roomsRegenerated(UUID sessionId) {
+        return new RoomChangeEvent(sessionId, RoomChangeType.ROOMS_REGENERATED, null, null, null);
+    }
+}
@@ -0,0 +1,8 @@
+package com.chitchatclub.api.service.live;
+
+public enum RoomChangeType {
+    MEMBER_ADDED,
+    MEMBER_REMOVED,
+    MEMBER_MOVED,
+    ROOMS_REGENERATED
+}
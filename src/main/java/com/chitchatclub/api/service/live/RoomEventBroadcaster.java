@@ -0,0 +1,202 @@
+package com.chitchatclub.api.service.live;
+
+import com.chitchatclub.api.service.bus.ClusterMessageBus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Pushes {@link RoomChangeEvent}s to SSE subscribers of a session. Events are
+ * published on the cluster bus after the transaction commits and delivered by
+ * every node to its own subscribers.
+ *
+ * <p>Event ids are {@code <epoch>-<sequence>}, where the epoch identifies this
+ * process. A reconnecting client that sends a {@code Last-Event-ID} still held in
+ * the session's replay buffer gets the missed events; an unknown or expired id
+ * (another node, a restart, or too many events) gets a {@code RESYNC} event
+ * telling it to refetch the full roster.
+ */
+@Service
+public class RoomEventBroadcaster {
+
+    static final String CHANNEL = "room_events";
+    static final String RESYNC = "RESYNC";
+
+    private static final Logger log = LoggerFactory.getLogger(RoomEventBroadcaster.class);
+
+    private final ClusterMessageBus bus;
+    private final ObjectMapper objectMapper;
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, 36);
+    private final Map<UUID, SessionStream> streams = new ConcurrentHashMap<>();
+    private final int replayBufferSize;
+    private final long emitterTimeoutMs;
+    private final long idleStreamTtlMs;
+
+    public RoomEventBroadcaster(ClusterMessageBus bus,
+                                ObjectMapper objectMapper,
+                                @Value("${app.live.replay-buffer-size}") int replayBufferSize,
+                                @Value("${app.live.emitter-timeout-ms}") long emitterTimeoutMs,
+                                @Value("${app.live.idle-stream-ttl-ms}") long idleStreamTtlMs) {
+        this.bus = bus;
+        this.objectMapper = objectMapper;
+        this.replayBufferSize = replayBufferSize;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.idleStreamTtlMs = idleStreamTtlMs;
+        bus.subscribe(CHANNEL, this::deliver);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRoomChange(RoomChangeEvent event) {
+        try {
+            bus.publish(CHANNEL, objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Failed to publish room change for session {}: {}", event.sessionId(), e.getMessage());
+        }
+    }
+
+    public SseEmitter subscribe(UUID sessionId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        while (true) {
+            SessionStream stream = streams.computeIfAbsent(sessionId, id -> new SessionStream());
+            synchronized (stream) {
+                if (streams.get(sessionId) != stream) {
+                    continue; // pruned by the heartbeat in between
+                }
+                emitter.onCompletion(() -> stream.emitters.remove(emitter));
+                emitter.onTimeout(emitter::complete);
+                emitter.onError(e -> stream.emitters.remove(emitter));
+                try {
+                    replay(stream, emitter, lastEventId);
+                } catch (IOException e) {
+                    emitter.completeWithError(e);
+                    return emitter;
+                }
+                stream.emitters.add(emitter);
+                stream.touch();
+                return emitter;
+            }
+        }
+    }
+
+    private void replay(SessionStream stream, SseEmitter emitter, String lastEventId) throws IOException {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return;
+        }
+        long lastSeq = parseSequence(lastEventId);
+        BufferedEvent oldest = stream.buffer.peekFirst();
+        long latestSeq = stream.nextSeq - 1;
+        if (lastSeq == latestSeq) {
+            return;
+        }
+        if (lastSeq < 0 || lastSeq > latestSeq || oldest == null || lastSeq < oldest.seq() - 1) {
+            emitter.send(SseEmitter.event().id(eventId(latestSeq)).name(RESYNC).data("{}", MediaType.APPLICATION_JSON));
+            return;
+        }
+        for (BufferedEvent event : stream.buffer) {
+            if (event.seq() > lastSeq) {
+                send(emitter, event);
+            }
+        }
+    }
+
+    private void deliver(String payload) {
+        RoomChangeEvent event;
+        try {
+            event = objectMapper.readValue(payload, RoomChangeEvent.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Dropping malformed room change payload: {}", e.getMessage());
+            return;
+        }
+        SessionStream stream = streams.get(event.sessionId());
+        if (stream == null) {
+            return;
+        }
+        synchronized (stream) {
+            BufferedEvent buffered = new BufferedEvent(stream.nextSeq++, event.type().name(), payload);
+            stream.buffer.addLast(buffered);
+            while (stream.buffer.size() > replayBufferSize) {
+                stream.buffer.removeFirst();
+            }
+            stream.touch();
+            for (SseEmitter emitter : stream.emitters) {
+                try {
+                    send(emitter, buffered);
+                } catch (IOException | IllegalStateException e) {
+                    stream.emitters.remove(emitter);
+                }
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.live.heartbeat-ms}")
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        streams.forEach((sessionId, stream) -> {
+            for (SseEmitter emitter : stream.emitters) {
+                try {
+                    emitter.send(SseEmitter.event().comment("keepalive"));
+                } catch (IOException | IllegalStateException e) {
+                    stream.emitters.remove(emitter);
+                }
+            }
+            synchronized (stream) {
+                if (stream.emitters.isEmpty() && now - stream.lastActivity > idleStreamTtlMs) {
+                    streams.remove(sessionId, stream);
+                }
+            }
+        });
+    }
+
+    private void send(SseEmitter emitter, BufferedEvent event) throws IOException {
+        emitter.send(SseEmitter.event()
+                .id(eventId(event.seq()))
+                .name(event.type())
+                .data(event.json(), MediaType.APPLICATION_JSON));
+    }
+
+    private String eventId(long seq) {
+        return epoch + "-" + seq;
+    }
+
+    private long parseSequence(String eventId) {
+        int dash = eventId.lastIndexOf('-');
+        if (dash < 0 || !eventId.substring(0, dash).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private record BufferedEvent(long seq, String type, String json) {}
+
+    private static final class SessionStream {
+        final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+        final ArrayDeque<BufferedEvent> buffer = new ArrayDeque<>();
+        long nextSeq = 1;
+        long lastActivity = System.currentTimeMillis();
+
+        void touch() {
+            lastActivity = System.currentTimeMillis();
+        }
+    }
+}
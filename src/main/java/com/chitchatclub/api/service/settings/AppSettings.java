@@ -0,0 +1,90 @@
+package com.chitchatclub.api.service.settings;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the typed runtime settings stored in {@code app_config}.
+ * Missing or unparsable values fall back to their defaults. The admin and public
+ * views are built once per snapshot.
+ */
+public final class AppSettings {
+
+    public static final String MAX_NO_SHOWS = "max_no_shows";
+    public static final String BLACKLIST_DURATION_DAYS = "blacklist_duration_days";
+    public static final String UNREGISTER_CUTOFF_HOURS = "unregister_cutoff_hours";
+
+    private static final Map<String, Integer> DEFAULTS = Map.of(
+            MAX_NO_SHOWS, 3,
+            BLACKLIST_DURATION_DAYS, 30,
+            UNREGISTER_CUTOFF_HOURS, 24);
+
+    private final int maxNoShows;
+    private final int blacklistDurationDays;
+    private final int unregisterCutoffHours;
+    private final Map<String, String> adminView;
+    private final Map<String, Object> publicView;
+
+    private AppSettings(int maxNoShows, int blacklistDurationDays, int unregisterCutoffHours) {
+        this.maxNoShows = maxNoShows;
+        this.blacklistDurationDays = blacklistDurationDays;
+        this.unregisterCutoffHours = unregisterCutoffHours;
+
+        Map<String, String> admin = new LinkedHashMap<>();
+        admin.put(MAX_NO_SHOWS, String.valueOf(maxNoShows));
+        admin.put(BLACKLIST_DURATION_DAYS, String.valueOf(blacklistDurationDays));
+        admin.put(UNREGISTER_CUTOFF_HOURS, String.valueOf(unregisterCutoffHours));
+        this.adminView = Collections.unmodifiableMap(admin);
+        this.publicView = Map.of("unregisterCutoffHours", unregisterCutoffHours);
+    }
+
+    static AppSettings from(Map<String, String> values) {
+        return new AppSettings(
+                intValue(values, MAX_NO_SHOWS),
+                intValue(values, BLACKLIST_DURATION_DAYS),
+                intValue(values, UNREGISTER_CUTOFF_HOURS));
+    }
+
+    /** Whether {@code key} is a typed setting, whose value must then be a non-negative integer. */
+    static boolean isTyped(String key) {
+        return DEFAULTS.containsKey(key);
+    }
+
+    static Integer parse(String value) {
+        if (value == null) return null;
+        try {
+            int parsed = Integer.parseInt(value.trim());
+            return parsed >= 0 ? parsed : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static int intValue(Map<String, String> values, String key) {
+        Integer parsed = parse(values.get(key));
+        return parsed != null ? parsed : DEFAULTS.get(key);
+    }
+
+    public int maxNoShows() {
+        return maxNoShows;
+    }
+
+    public int blacklistDurationDays() {
+        return blacklistDurationDays;
+    }
+
+    public int unregisterCutoffHours() {
+        return unregisterCutoffHours;
+    }
+
+    /** Typed settings by their {@code app_config} key, as shown to admins. */
+    public Map<String, String> adminView() {
+        return adminView;
+    }
+
+    /** Settings the frontend needs before login. */
+    public Map<String, Object> publicView() {
+        return publicView;
+    }
+}
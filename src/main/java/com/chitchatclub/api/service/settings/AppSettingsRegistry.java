@@ -0,0 +1,85 @@
+package com.chitchatclub.api.service.settings;
+
+import com.chitchatclub.api.entity.AppConfig;
+import com.chitchatclub.api.exception.BadRequestException;
+import com.chitchatclub.api.repository.AppConfigRepository;
+import com.chitchatclub.api.service.bus.ClusterMessageBus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Serves {@link AppSettings} from an in-memory snapshot of {@code app_config}. The
+ * snapshot is replaced as a whole after every update, and a notification on the
+ * cluster bus makes every node, including this one, reload it.
+ */
+@Service
+public class AppSettingsRegistry {
+
+    static final String CHANNEL = "app_settings";
+
+    private static final Logger log = LoggerFactory.getLogger(AppSettingsRegistry.class);
+
+    private final AppConfigRepository appConfigRepository;
+    private final ClusterMessageBus bus;
+    private final AtomicReference<AppSettings> current = new AtomicReference<>();
+
+    public AppSettingsRegistry(AppConfigRepository appConfigRepository, ClusterMessageBus bus) {
+        this.appConfigRepository = appConfigRepository;
+        this.bus = bus;
+        bus.subscribe(CHANNEL, payload -> reload());
+    }
+
+    public AppSettings get() {
+        AppSettings settings = current.get();
+        return settings != null ? settings : reload();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    public AppSettings reload() {
+        Map<String, String> values = new HashMap<>();
+        for (AppConfig config : appConfigRepository.findAll()) {
+            values.put(config.getConfigKey(), config.getConfigValue());
+        }
+        AppSettings settings = AppSettings.from(values);
+        current.set(settings);
+        return settings;
+    }
+
+    /**
+     * Stores the given keys and republishes the snapshot. Typed settings must be
+     * non-negative integers; other keys are stored as given.
+     */
+    public AppSettings update(Map<String, String> updates) {
+        List<AppConfig> changed = new ArrayList<>(updates.size());
+        for (Map.Entry<String, String> entry : updates.entrySet()) {
+            if (AppSettings.isTyped(entry.getKey()) && AppSettings.parse(entry.getValue()) == null) {
+                throw new BadRequestException(entry.getKey() + " must be a non-negative integer");
+            }
+            AppConfig config = new AppConfig();
+            config.setConfigKey(entry.getKey());
+            config.setConfigValue(entry.getValue());
+            changed.add(config);
+        }
+        appConfigRepository.saveAll(changed);
+        AppSettings settings = reload();
+        try {
+            bus.publish(CHANNEL, "reload");
+        } catch (RuntimeException e) {
+            log.warn("Failed to broadcast settings change: {}", e.getMessage());
+        }
+        return settings;
+    }
+}
@@ -0,0 +1,45 @@
+package com.chitchatclub.api.util;
+
+import org.springframework.http.CacheControl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Weak ETags built from entity versions, so a conditional GET can be answered with
+ * 304 after a version lookup, without loading or serializing the resource.
+ */
+public final class ETags {
+
+    /** Clients may keep versioned responses but must revalidate them before reuse. */
+    public static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private ETags() {}
+
+    public static String of(Object... parts) {
+        return weak(Stream.of(parts).map(String::valueOf).collect(Collectors.joining("-")));
+    }
+
+    /** A fixed-length tag over any number of parts, for collections. */
+    public static String digest(List<String> parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                digest.update(part.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            return weak(HexFormat.of().formatHex(digest.digest(), 0, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String weak(String tag) {
+        return "W/\"" + tag + "\"";
+    }
+}
@@ -8,36 +8,74 @@ public final class EnglishLevelNormalizer {
 
     private EnglishLevelNormalizer() {}
 
+    private static final int INVALID = -1;
+
     public static LevelBucket getEffectiveLevel(User user) {
-        if (user.getProficiencyLevelOverride() != null) {
-            return user.getProficiencyLevelOverride();
-        }
-        return normalize(user.getEnglishLevelType(), user.getEnglishLevelValue());
+        return user.getEffectiveLevelBucket();
     }
 
     public static LevelBucket normalize(EnglishLevelType type, String value) {
         if (type == null || value == null || value.isBlank()) return LevelBucket.UNSPECIFIED;
-        try {
-            return switch (type) {
-                case IELTS -> normalizeIelts(Double.parseDouble(value.trim()));
-                case TOEFL_IBT -> normalizeToeflIbt(Integer.parseInt(value.trim()));
-                case TOEFL_ITP -> normalizeToeflItp(Integer.parseInt(value.trim()));
-                case DUOLINGO -> normalizeDuolingo(Integer.parseInt(value.trim()));
-                case CEFR -> normalizeCefr(value.trim().toUpperCase());
-                case OTHER -> LevelBucket.UNSPECIFIED;
-            };
-        } catch (Exception e) {
-            return LevelBucket.UNSPECIFIED;
+        String trimmed = value.trim();
+        return switch (type) {
+            case IELTS -> normalizeIelts(parseHalfBands(trimmed));
+            case TOEFL_IBT -> normalizeToeflIbt(parseScore(trimmed));
+            case TOEFL_ITP -> normalizeToeflItp(parseScore(trimmed));
+            case DUOLINGO -> normalizeDuolingo(parseScore(trimmed));
+            case CEFR -> normalizeCefr(trimmed.toUpperCase());
+            case OTHER -> LevelBucket.UNSPECIFIED;
+        };
+    }
+
+    /** Parses a non-negative integer, returning {@link #INVALID} instead of throwing. */
+    static int parseScore(String value) {
+        int length = value.length();
+        if (length == 0) return INVALID;
+        int result = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9' || result > 100_000) return INVALID;
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    /**
+     * Parses an IELTS band into half-band units, rounding up to the next half band
+     * (6 -> 12, 6.5 -> 13, 6.3 -> 13, 6.7 -> 14), returning {@link #INVALID} instead of throwing.
+     */
+    static int parseHalfBands(String value) {
+        int dot = value.indexOf('.');
+        if (dot < 0) {
+            int bands = parseScore(value);
+            return bands == INVALID ? INVALID : bands * 2;
+        }
+        String whole = value.substring(0, dot);
+        String fraction = value.substring(dot + 1);
+        if (whole.isEmpty() && fraction.isEmpty()) return INVALID;
+        int bands = whole.isEmpty() ? 0 : parseScore(whole);
+        if (bands == INVALID || (!fraction.isEmpty() && parseScore(fraction) == INVALID)) return INVALID;
+
+        int firstDigit = fraction.isEmpty() ? 0 : fraction.charAt(0) - '0';
+        boolean restNonZero = false;
+        for (int i = 1; i < fraction.length(); i++) {
+            if (fraction.charAt(i) != '0') {
+                restNonZero = true;
+                break;
+            }
         }
+        if (firstDigit == 0 && !restNonZero) return bands * 2;
+        if (firstDigit < 5 || (firstDigit == 5 && !restNonZero)) return bands * 2 + 1;
+        return bands * 2 + 2;
     }
 
-    private static LevelBucket normalizeIelts(double score) {
-        if (score < 0 || score > 9) return LevelBucket.UNSPECIFIED;
-        if (score <= 3.5) return LevelBucket.A1;
-        if (score <= 4.5) return LevelBucket.A2;
-        if (score <= 5.5) return LevelBucket.B1;
-        if (score <= 6.5) return LevelBucket.B2;
-        if (score <= 8.0) return LevelBucket.C1;
+    private static LevelBucket normalizeIelts(int halfBands) {
+        if (halfBands < 0 || halfBands > 18) return LevelBucket.UNSPECIFIED;
+        if (halfBands <= 7) return LevelBucket.A1;
+        if (halfBands <= 9) return LevelBucket.A2;
+        if (halfBands <= 11) return LevelBucket.B1;
+        if (halfBands <= 13) return LevelBucket.B2;
+        if (halfBands <= 16) return LevelBucket.C1;
         return LevelBucket.C2;
     }
 
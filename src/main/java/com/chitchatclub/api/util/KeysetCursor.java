@@ -0,0 +1,53 @@
+package com.chitchatclub.api.util;
+
+import com.chitchatclub.api.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque keyset pagination cursor: the sort value and id of the last row on a page.
+ */
+public record KeysetCursor(String position, UUID id) {
+
+    private static final char SEPARATOR = '|';
+
+    public static KeysetCursor of(Object position, UUID id) {
+        return new KeysetCursor(position.toString(), id);
+    }
+
+    public String encode() {
+        String raw = position + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int split = raw.lastIndexOf(SEPARATOR);
+            return new KeysetCursor(raw.substring(0, split), UUID.fromString(raw.substring(split + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    public Instant positionAsInstant() {
+        try {
+            return Instant.parse(position);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    public LocalDateTime positionAsLocalDateTime() {
+        try {
+            return LocalDateTime.parse(position);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
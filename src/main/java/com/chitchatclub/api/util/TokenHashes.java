@@ -0,0 +1,30 @@
+package com.chitchatclub.api.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Opaque tokens handed to users (refresh, verification and reset links). Only the
+ * SHA-256 of a token is stored, so a leaked table cannot be replayed and lookups
+ * use a fixed 64-character key.
+ */
+public final class TokenHashes {
+
+    private TokenHashes() {}
+
+    public static String newToken() {
+        return UUID.randomUUID().toString();
+    }
+
+    public static String sha256Hex(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
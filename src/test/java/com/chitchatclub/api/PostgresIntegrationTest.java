@@ -0,0 +1,114 @@
+package com.chitchatclub.api;
+
+import com.chitchatclub.api.entity.Registration;
+import com.chitchatclub.api.entity.Session;
+import com.chitchatclub.api.entity.User;
+import com.chitchatclub.api.entity.enums.EnglishLevelType;
+import com.chitchatclub.api.entity.enums.Role;
+import com.chitchatclub.api.entity.enums.SessionStatus;
+import com.chitchatclub.api.repository.RegistrationRepository;
+import com.chitchatclub.api.repository.SessionRepository;
+import com.chitchatclub.api.repository.UserRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Boots the application against an embedded PostgreSQL with the dev seed data. The database
+ * is shared by every test class in the run, so tests create their own rows through the
+ * fixture methods here and must not rely on table-wide counts.
+ */
+@SpringBootTest
+@ActiveProfiles("dev")
+public abstract class PostgresIntegrationTest {
+
+    private static final EmbeddedPostgres POSTGRES = start();
+
+    @Autowired
+    protected SessionRepository sessionRepository;
+    @Autowired
+    protected UserRepository userRepository;
+    @Autowired
+    protected RegistrationRepository registrationRepository;
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> "true");
+        registry.add("spring.mail.host", () -> "localhost");
+        registry.add("spring.mail.port", () -> "2525");
+        registry.add("spring.mail.password", () -> "test");
+        registry.add("app.jwt.secret", () -> "testJwtSecretKeyThatIsAtLeast256BitsLongForTheHS256Algorithm0123456789");
+    }
+
+    /** An open session created by the seeded admin; {@code maxParticipants} may be null for no limit. */
+    protected Session createOpenSession(String title, Integer maxParticipants, Duration startsIn) {
+        Session session = new Session();
+        session.setTitle(title);
+        session.setStatus(SessionStatus.OPEN);
+        session.setStartDateTime(Instant.now().plus(startsIn));
+        session.setDurationMinutes(60);
+        session.setMaxParticipants(maxParticipants);
+        session.setCreatedBy(userRepository.findByEmail("admin@local.dev").orElseThrow());
+        session.setAttendanceCode("1234");
+        return sessionRepository.save(session);
+    }
+
+    /**
+     * Verified users with unique emails, alternating between B1 and C1. Every
+     * {@code moderatorEvery}-th user, starting with the first, is a moderator; 0 means none.
+     */
+    protected List<User> createUsers(String prefix, int count, int moderatorEvery) {
+        String tag = UUID.randomUUID().toString().substring(0, 8);
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setEmail(prefix + "-" + tag + "-" + i + "@test.dev");
+            user.setFullName(prefix + " " + i);
+            user.setRole(moderatorEvery > 0 && i % moderatorEvery == 0 ? Role.MODERATOR : Role.PARTICIPANT);
+            user.setEnglishLevelType(EnglishLevelType.CEFR);
+            user.setEnglishLevelValue(i % 2 == 0 ? "B1" : "C1");
+            user.setEmailVerified(true);
+            users.add(user);
+        }
+        return userRepository.saveAll(users);
+    }
+
+    /**
+     * Inserts registrations directly, moderators registered as such. Bypasses seat
+     * reservation, so the session's registered count is not updated.
+     */
+    protected void registerAll(Session session, List<User> users) {
+        List<Registration> registrations = new ArrayList<>(users.size());
+        for (User user : users) {
+            Registration registration = new Registration();
+            registration.setSession(session);
+            registration.setUser(user);
+            registration.setRegisteredAsModerator(user.getRole() == Role.MODERATOR);
+            registrations.add(registration);
+        }
+        registrationRepository.saveAll(registrations);
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.builder().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.chitchatclub.api.metrics;
+
+/**
+ * Counts the SQL statements a block runs on the calling thread. Unlike Hibernate's
+ * statistics, statements of schedulers and worker pools running meanwhile are not counted.
+ */
+public final class SqlStatementCounter {
+
+    private SqlStatementCounter() {
+    }
+
+    public static int count(Runnable block) {
+        RequestSqlStats stats = RequestSqlStats.begin();
+        try {
+            block.run();
+            return stats.statements();
+        } finally {
+            RequestSqlStats.end();
+        }
+    }
+}
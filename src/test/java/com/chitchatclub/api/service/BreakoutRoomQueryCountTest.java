@@ -0,0 +1,43 @@
+package com.chitchatclub.api.service;
+
+import com.chitchatclub.api.PostgresIntegrationTest;
+import com.chitchatclub.api.dto.response.BreakoutRoomResponse;
+import com.chitchatclub.api.entity.Session;
+import com.chitchatclub.api.metrics.SqlStatementCounter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * getRooms loads the rooms and then every member and moderator in one roster
+ * query, however many rooms and people the session has.
+ */
+class BreakoutRoomQueryCountTest extends PostgresIntegrationTest {
+
+    private static final int USERS = 120;
+    private static final int ROOM_SIZE = 4;
+
+    @Autowired
+    private BreakoutRoomService breakoutRoomService;
+
+    @Test
+    void getRoomsUsesAtMostTwoStatements() {
+        Session session = createOpenSession("Rooms", null, Duration.ofDays(2));
+        registerAll(session, createUsers("rooms", USERS, 6));
+        breakoutRoomService.generateRooms(session.getId(), ROOM_SIZE);
+
+        List<List<BreakoutRoomResponse>> result = new ArrayList<>();
+        int statements = SqlStatementCounter.count(() -> result.add(breakoutRoomService.getRooms(session.getId())));
+        List<BreakoutRoomResponse> rooms = result.get(0);
+
+        assertThat(rooms).hasSizeGreaterThan(10);
+        assertThat(rooms.stream().mapToInt(room -> room.members().size() + room.moderators().size()).sum())
+                .isEqualTo(USERS);
+        assertThat(statements).isLessThanOrEqualTo(2);
+    }
+}
@@ -0,0 +1,66 @@
+package com.chitchatclub.api.service;
+
+import com.chitchatclub.api.PostgresIntegrationTest;
+import com.chitchatclub.api.entity.Session;
+import com.chitchatclub.api.entity.User;
+import com.chitchatclub.api.entity.enums.SessionStatus;
+import com.chitchatclub.api.metrics.SqlStatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The session listings must cost the same number of statements however many sessions they
+ * return; a lazy association touched per row shows up here as a count that grows with the data.
+ * Statements are counted on the test thread only, so background pollers do not skew them.
+ */
+class SessionListingQueryCountTest extends PostgresIntegrationTest {
+
+    private static final int SESSIONS = 5;
+    private static final int REGISTRATIONS_PER_SESSION = 4;
+
+    @Autowired
+    private SessionService sessionService;
+
+    private User participant;
+    private List<User> attendees;
+
+    @BeforeEach
+    void setUp() {
+        attendees = createUsers("listing", REGISTRATIONS_PER_SESSION, 3);
+        participant = attendees.get(1);
+    }
+
+    @Test
+    void listingsDoNotIssueStatementsPerSession() {
+        seedSessions(SESSIONS);
+        int[] before = countListingStatements();
+
+        seedSessions(SESSIONS);
+        int[] after = countListingStatements();
+
+        assertThat(after).containsExactly(before);
+    }
+
+    /** Statement counts of getOpenSessions, getSessionsForAdmin, getUpcomingSessions and getMyRegisteredSessions. */
+    private int[] countListingStatements() {
+        return new int[] {
+                SqlStatementCounter.count(() -> sessionService.getOpenSessions()),
+                SqlStatementCounter.count(() -> sessionService.getSessionsForAdmin(SessionStatus.OPEN, null, null, null, 100)),
+                SqlStatementCounter.count(() -> sessionService.getUpcomingSessions()),
+                SqlStatementCounter.count(() -> sessionService.getMyRegisteredSessions(participant.getId()))
+        };
+    }
+
+    private void seedSessions(int count) {
+        for (int i = 0; i < count; i++) {
+            Session session = createOpenSession("Listing " + i, 20, Duration.ofDays(3 + i));
+            registerAll(session, attendees);
+        }
+    }
+}
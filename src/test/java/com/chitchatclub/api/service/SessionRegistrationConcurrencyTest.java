@@ -0,0 +1,96 @@
+package com.chitchatclub.api.service;
+
+import com.chitchatclub.api.PostgresIntegrationTest;
+import com.chitchatclub.api.entity.Session;
+import com.chitchatclub.api.entity.User;
+import com.chitchatclub.api.exception.BadRequestException;
+import com.chitchatclub.api.exception.ConflictException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Seats are taken with a conditional UPDATE on the session row; a burst of
+ * parallel registrations must neither overbook the session nor let the
+ * counter drift from the registrations table.
+ */
+class SessionRegistrationConcurrencyTest extends PostgresIntegrationTest {
+
+    private static final int CAPACITY = 40;
+    private static final int USERS = 200;
+    private static final int ATTEMPTS_PER_USER = 2;
+
+    @Autowired
+    private SessionService sessionService;
+
+    @Test
+    void parallelRegistrationsNeverOverbook() throws Exception {
+        Session session = createOpenSession("Concurrency", CAPACITY, Duration.ofDays(7));
+        List<User> users = createUsers("concurrency", USERS, 0);
+
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<Outcome>> outcomes = new ArrayList<>();
+        try {
+            for (int attempt = 0; attempt < ATTEMPTS_PER_USER; attempt++) {
+                for (User user : users) {
+                    outcomes.add(pool.submit(() -> {
+                        go.await();
+                        try {
+                            sessionService.registerUser(session.getId(), user, false);
+                            return Outcome.REGISTERED;
+                        } catch (BadRequestException e) {
+                            return Outcome.FULL;
+                        } catch (ConflictException e) {
+                            return Outcome.DUPLICATE;
+                        }
+                    }));
+                }
+            }
+            go.countDown();
+
+            int registered = 0;
+            for (Future<Outcome> outcome : outcomes) {
+                if (outcome.get(60, TimeUnit.SECONDS) == Outcome.REGISTERED) {
+                    registered++;
+                }
+            }
+            assertThat(registered).isEqualTo(CAPACITY);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Session reloaded = sessionRepository.findById(session.getId()).orElseThrow();
+        long rows = registrationRepository.countBySessionId(session.getId());
+        assertThat(rows).isEqualTo(CAPACITY);
+        assertThat(reloaded.getRegisteredCount()).isEqualTo(rows);
+
+        sessionService.reconcileRegisteredCounts();
+        Session reconciled = sessionRepository.findById(session.getId()).orElseThrow();
+        assertThat(reconciled.getRegisteredCount()).isEqualTo(CAPACITY);
+        assertThat(reconciled.getRosterVersion()).isEqualTo(reloaded.getRosterVersion());
+    }
+
+    @Test
+    void registeringTwiceOnAFullSessionIsADuplicate() {
+        Session session = createOpenSession("Concurrency", 1, Duration.ofDays(7));
+        User user = createUsers("duplicate", 1, 0).get(0);
+        sessionService.registerUser(session.getId(), user, false);
+
+        assertThatThrownBy(() -> sessionService.registerUser(session.getId(), user, false))
+                .isInstanceOf(ConflictException.class);
+    }
+
+    private enum Outcome { REGISTERED, FULL, DUPLICATE }
+}